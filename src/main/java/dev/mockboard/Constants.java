@@ -24,12 +24,59 @@ public final class Constants {
     public static final int MAX_WEBHOOKS = Env.getInt("MBD_MAX_WEBHOOKS", 15);
 
     // cache
-    public static final int DEFAULT_CACHE_MAX_ENTRIES = Env.getInt("MBD_CACHE_DEFAULT_MAX_ENTRIES", 5_000);
+    // estimated retained size of all cached board state (rules, webhooks, boards)
+    public static final int CACHE_MEMORY_BUDGET_MB = Env.getInt("MBD_CACHE_MEMORY_BUDGET_MB", 128);
     public static final int DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES = Env.getInt("MBD_CACHE_DEFAULT_EXP_AFTER_ACCESS_MINUTES", 15);
+    // warm start: board contexts written to mockboard.data-path on shutdown and loaded on start, older snapshots are ignored
+    public static final boolean CACHE_SNAPSHOT_ENABLED = Env.getBool("MBD_CACHE_SNAPSHOT_ENABLED", true);
+    public static final int CACHE_SNAPSHOT_MAX_AGE_MINUTES = Env.getInt("MBD_CACHE_SNAPSHOT_MAX_AGE_MINUTES", DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES);
+    // without a snapshot, the most recent boards are loaded with bulk queries
+    public static final int CACHE_WARMUP_MAX_BOARDS = Env.getInt("MBD_CACHE_WARMUP_MAX_BOARDS", 1_000);
 
-    // events
+    // board id filter
+    public static final int BOARD_FILTER_EXPECTED_BOARDS = Env.getInt("MBD_BOARD_FILTER_EXPECTED_BOARDS", 50_000);
+    public static final double BOARD_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    // faker instances rendering template values, each with its own random source
+    public static final int FAKER_STRIPES = Env.getInt("MBD_FAKER_STRIPES", Runtime.getRuntime().availableProcessors());
+    // pre-generated template values, per dictionary key
+    public static final boolean FAKER_POOL_ENABLED = Env.getBool("MBD_FAKER_POOL_ENABLED", false);
+    public static final int FAKER_POOL_SIZE = Env.getInt("MBD_FAKER_POOL_SIZE", 256);
+    public static final int FAKER_POOL_REFILL_BATCH = Env.getInt("MBD_FAKER_POOL_REFILL_BATCH", 64);
+    public static final int FAKER_POOL_REFILL_INTERVAL_MS = Env.getInt("MBD_FAKER_POOL_REFILL_INTERVAL_MS", 100);
+
+    // delayed responses, the wheel covers MAX_ALLOWED_DELAY in one round with the default tick
+    public static final int DELAY_TIMER_TICK_MS = Env.getInt("MBD_DELAY_TIMER_TICK_MS", 10);
+    public static final int DELAY_TIMER_WHEEL_SIZE = 1024;
+
+    // events, pending writes are held in a bounded ring per entity type, see DedupRing and OverflowPolicy
+    public static final int EVENT_RING_CAPACITY = Env.getInt("MBD_EVENT_RING_CAPACITY", 10_000);
+    public static final String EVENT_RING_OVERFLOW_POLICY = Env.get("MBD_EVENT_RING_OVERFLOW_POLICY", "DROP");
+    // flushed when a full batch is pending or EVENT_DEDUP_PROCESS_DELAY passed since the last flush
+    public static final int EVENT_FLUSH_CHECK_INTERVAL_MS = Env.getInt("MBD_EVENT_FLUSH_CHECK_INTERVAL_MS", 1_000);
     public static final int EVENT_DEDUP_PROCESS_DELAY = Env.getInt("MBD_EVENT_DEDUP_PROCESS_DELAY", 30_000);
     public static final int EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS = Env.getInt("MBD_EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS", 500);
+    // rows per JDBC batch when a drained batch is written
+    public static final int EVENT_BATCH_WRITE_SIZE = Env.getInt("MBD_EVENT_BATCH_WRITE_SIZE", 100);
+    // write-ahead log of the pending events under mockboard.data-path, replayed on start, see WebhookEventLog
+    public static final boolean EVENT_WAL_ENABLED = Env.getBool("MBD_EVENT_WAL_ENABLED", true);
+    public static final int EVENT_WAL_SEGMENT_BYTES = Env.getInt("MBD_EVENT_WAL_SEGMENT_BYTES", 16 * 1024 * 1024);
+    public static final int EVENT_WAL_SYNC_INTERVAL_MS = Env.getInt("MBD_EVENT_WAL_SYNC_INTERVAL_MS", 1_000);
+
+    // requests per second and board captured in full, above it captures are sampled, see CaptureSampler
+    public static final int CAPTURE_FULL_RATE = Env.getInt("MBD_CAPTURE_FULL_RATE", 50);
+
+    // captures are processed per board in submission order, each board hashed to one lane, see BoardLaneExecutor
+    public static final int WEBHOOK_LANES = Env.getInt("MBD_WEBHOOK_LANES", Math.max(2, Runtime.getRuntime().availableProcessors()));
+    public static final int WEBHOOK_LANE_CAPACITY = Env.getInt("MBD_WEBHOOK_LANE_CAPACITY", 1_024);
+    public static final String WEBHOOK_LANE_OVERFLOW_POLICY = Env.get("MBD_WEBHOOK_LANE_OVERFLOW_POLICY", "DROP");
+    public static final int WEBHOOK_LANE_BATCH_SIZE = Env.getInt("MBD_WEBHOOK_LANE_BATCH_SIZE", 64);
+    public static final int WEBHOOK_LANE_BLOCK_MS = Env.getInt("MBD_WEBHOOK_LANE_BLOCK_MS", 50);
+
+    // db circuit breaker, see DbCircuitBreaker
+    public static final int DB_BREAKER_FAILURE_THRESHOLD = Env.getInt("MBD_DB_BREAKER_FAILURE_THRESHOLD", 5);
+    public static final int DB_BREAKER_OPEN_MS = Env.getInt("MBD_DB_BREAKER_OPEN_MS", 10_000);
+    public static final int DB_BREAKER_SLOW_CALL_MS = Env.getInt("MBD_DB_BREAKER_SLOW_CALL_MS", 5_000);
 
     // validations
     public static final Pattern VALID_PATH_PATTERN = Pattern.compile("^/[a-zA-Z0-9/_\\-*]+$");
@@ -37,6 +84,7 @@ public final class Constants {
     public static final int MAX_PATH_LENGTH = Env.getInt("MBD_VALIDATION_MOCK_MAX_PATH_LENGTH", 250);
     public static final int MAX_QUERY_STRING_LENGTH = Env.getInt("MBD_VALIDATION_MOCK_MAX_QUERY_STRING_LENGTH", 250);
     public static final int MAX_BODY_LENGTH = Env.getInt("MBD_VALIDATION_MOCK_MAX_BODY_LENGTH", 5_000);
+    public static final int BODY_BUFFER_POOL_SIZE = Env.getInt("MBD_VALIDATION_BODY_BUFFER_POOL_SIZE", 64);
     public static final int MAX_WILDCARDS = Env.getInt("MBD_VALIDATION_MOCK_MAX_WILDCARDS", 3);
     public static final int MAX_HEADERS_SIZE = Env.getInt("MBD_VALIDATION_MOCK_MAX_HEADERS_SIZE", 5);
     public static final int MAX_WEBHOOK_HEADERS_SIZE = Env.getInt("MBD_VALIDATION_MOCK_MAX_WEBHOOK_HEADERS_SIZE", 15);
@@ -51,6 +99,8 @@ public final class Constants {
     public static final String SSE_EMITTER_EVENT_WEBHOOK = "webhook-event";
     public static final String SSE_EMITTER_EVENT_PING = "ping";
     public static final String SSE_EMITTER_EVENT_SHUTDOWN = "server-shutdown";
+    // frames queued per subscriber, a subscriber this far behind is dropped and reconnects
+    public static final int SSE_SUBSCRIBER_QUEUE_CAPACITY = Env.getInt("MBD_SSE_SUBSCRIBER_QUEUE_CAPACITY", 256);
 
     // rate limiter
     public static final boolean RATE_LIMIT_ENABLED = Env.getBool("MBD_RATE_LIMIT_ENABLED", false);
@@ -0,0 +1,223 @@
+package dev.mockboard;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires CONCURRENT_REQUESTS requests at once against a single delayed mock rule.
+ * Every request should complete close to DELAY_MS, no matter how many of them are pending.
+ * Peak pending delays are read from the actuator while the requests are in flight.
+ */
+public class MockboardDelayLoadTest {
+
+    /*
+    LATEST TEST (1 vCPU shared by client and server, 2g heap, connections opened before the measured round):
+
+    Concurrent Requests: 10000
+    Delay: 2000ms
+
+                          Thread.sleep           hashed wheel timer
+                          platform | virtual     platform | virtual
+    Duration(ms):         46738    | 25967       22642    | 20654
+    Successful:           10000    | 10000       10000    | 10000
+    p50(ms):              22745    | 21034       14665    | 15509
+    p99(ms):              42068    | 22882       17722    | 18040
+    Peak live threads:    515      | 17          516      | 18
+
+    With Thread.sleep and platform threads, 500 Tomcat threads serve 250 delayed req/sec at most.
+    With the timer, the rest above DELAY_MS is CPU bound on this box, not thread bound.
+     */
+
+    private static final String BASE_URL = "http://localhost:8000";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final int CONCURRENT_REQUESTS = 10_000;
+    private static final int DELAY_MS = 2_000;
+
+    private static final LongAdder successfulRequests = new LongAdder();
+    private static final LongAdder failedRequests = new LongAdder();
+    private static final ConcurrentHashMap<String, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private static final List<Long> responseTimes = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger peakPendingDelays = new AtomicInteger();
+    private static final AtomicInteger peakLiveThreads = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Base URL: " + BASE_URL);
+        System.out.println("Concurrent Requests: " + CONCURRENT_REQUESTS);
+        System.out.println("Delay: " + DELAY_MS + "ms");
+
+        var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        var board = createBoard(client);
+        createDelayedMockRule(client, board.get("boardId"), board.get("ownerToken"));
+
+        // open the connections first, so the measured round is not dominated by connection setup
+        runConcurrently(() -> executeMock(client, board.get("boardId"), "/api/warmup", false));
+
+        // own client, so samples do not queue behind the load
+        var monitorClient = HttpClient.newHttpClient();
+        var monitor = Executors.newSingleThreadScheduledExecutor();
+        monitor.scheduleAtFixedRate(() -> sampleServerMetrics(monitorClient), 0, 200, TimeUnit.MILLISECONDS);
+
+        var startTime = Instant.now();
+        runConcurrently(() -> executeMock(client, board.get("boardId"), "/api/slow", true));
+        var totalDuration = Duration.between(startTime, Instant.now());
+
+        monitor.shutdownNow();
+        deleteBoard(client, board.get("boardId"), board.get("ownerToken"));
+        printResults(totalDuration);
+    }
+
+    private static Map<String, String> createBoard(HttpClient client) throws Exception {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "/api/boards"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        var body = JSON.readValue(response.body(), Map.class);
+        return Map.of(
+                "boardId", body.get("id").toString(),
+                "ownerToken", body.get("ownerToken").toString());
+    }
+
+    private static void createDelayedMockRule(HttpClient client, String boardId, String token) throws Exception {
+        var mockRule = String.format("""
+                {
+                    "method": "GET",
+                    "path": "/api/slow",
+                    "statusCode": 200,
+                    "body": "{\\"message\\":\\"slow\\"}",
+                    "delay": "%d"
+                }
+                """, DELAY_MS);
+
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "/api/boards/" + boardId + "/mocks"))
+                .header("Content-Type", "application/json")
+                .header("X-Owner-Token", token)
+                .POST(HttpRequest.BodyPublishers.ofString(mockRule))
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void runConcurrently(Runnable request) throws InterruptedException {
+        var startGate = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                executor.submit(() -> {
+                    startGate.await();
+                    request.run();
+                    return null;
+                });
+            }
+            startGate.countDown();
+        }
+    }
+
+    private static void executeMock(HttpClient client, String boardId, String path, boolean record) {
+        try {
+            var request = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + "/m/" + boardId + path))
+                    .timeout(Duration.ofSeconds(120))
+                    .GET()
+                    .build();
+
+            long start = System.nanoTime();
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (record) recordMetrics(response.statusCode(), System.nanoTime() - start);
+        } catch (Exception e) {
+            if (record) failedRequests.increment();
+        }
+    }
+
+    private static void deleteBoard(HttpClient client, String boardId, String token) throws Exception {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "/api/boards/" + boardId))
+                .header("X-Owner-Token", token)
+                .DELETE()
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static void sampleServerMetrics(HttpClient client) {
+        peakPendingDelays.accumulateAndGet(readGauge(client, "mockboard.delay.pending"), Math::max);
+        peakLiveThreads.accumulateAndGet(readGauge(client, "jvm.threads.live"), Math::max);
+    }
+
+    private static int readGauge(HttpClient client, String name) {
+        try {
+            var request = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + "/actuator/metrics/" + name))
+                    .GET()
+                    .build();
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) return 0;
+
+            var measurements = (List<?>) JSON.readValue(response.body(), Map.class).get("measurements");
+            var value = ((Map<?, ?>) measurements.getFirst()).get("value");
+            return ((Number) value).intValue();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static void recordMetrics(int statusCode, long durationNanos) {
+        if (statusCode >= 200 && statusCode < 300) {
+            successfulRequests.increment();
+        } else {
+            failedRequests.increment();
+        }
+
+        statusCodes.computeIfAbsent(String.valueOf(statusCode), k -> new LongAdder()).increment();
+        responseTimes.add(durationNanos / 1_000_000);
+    }
+
+    private static void printResults(Duration totalDuration) {
+        long successful = successfulRequests.sum();
+        long failed = failedRequests.sum();
+
+        System.out.println("\nDuration: " + totalDuration.toMillis() + "ms");
+        System.out.println("Successful: " + successful + " (" + (successful * 100.0 / CONCURRENT_REQUESTS) + "%)");
+        System.out.println("Failed: " + failed + " (" + (failed * 100.0 / CONCURRENT_REQUESTS) + "%)");
+        System.out.println("Peak pending delays (server): " + peakPendingDelays.get());
+        System.out.println("Peak live threads (server): " + peakLiveThreads.get());
+        System.out.println("\nStatus Code Distribution:");
+        statusCodes.forEach((code, count) ->
+                System.out.println(code + ": " + count.sum() + " requests")
+        );
+
+        if (!responseTimes.isEmpty()) {
+            List<Long> sorted = new ArrayList<>(responseTimes);
+            Collections.sort(sorted);
+
+            System.out.println("\nResponse Times(ms):");
+            System.out.println("min: " + sorted.get(0));
+            System.out.println("max: " + sorted.get(sorted.size() - 1));
+            System.out.println("avg: " + sorted.stream().mapToLong(Long::longValue).average().orElse(0));
+            System.out.println("p50: " + percentile(sorted, 50));
+            System.out.println("p95: " + percentile(sorted, 95));
+            System.out.println("p99: " + percentile(sorted, 99));
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(sorted.size() * percentile / 100.0) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -1,14 +1,38 @@
 package dev.mockboard.common.cache;
 
 import dev.mockboard.common.domain.dto.BoardDto;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import static dev.mockboard.Constants.DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES;
-import static dev.mockboard.Constants.DEFAULT_CACHE_MAX_ENTRIES;
+import java.util.Optional;
+import java.util.function.Function;
 
+/**
+ * Board part of the {@link BoardContext}.
+ */
 @Component
-public class BoardCache extends CaffeineEntityCache<BoardDto> {
-    public BoardCache() {
-        super(DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES);
+@RequiredArgsConstructor
+public class BoardCache {
+
+    private final BoardContextCache boardContextCache;
+
+    public Optional<BoardDto> get(String key) {
+        var context = boardContextCache.getIfPresent(key);
+        return Optional.ofNullable(context != null ? context.board() : null);
+    }
+
+    public BoardDto get(String key, Function<String, BoardDto> loader) {
+        return boardContextCache.context(key).board(() -> loader.apply(key));
+    }
+
+    public void put(String key, BoardDto boardDto) {
+        boardContextCache.context(key).setBoard(boardDto);
+    }
+
+    // contexts created by /m/ traffic alone, or for unknown boards, have no board
+    public long size() {
+        return boardContextCache.contexts().stream()
+                .filter(context -> context.board() != null)
+                .count();
     }
 }
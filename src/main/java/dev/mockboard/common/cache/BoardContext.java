@@ -0,0 +1,169 @@
+package dev.mockboard.common.cache;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.domain.MockRuleTable;
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.utils.MemoryUtils;
+import dev.mockboard.config.sse.SseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runtime state of one board, a single {@link BoardContextCache} entry so all parts share one expiry.
+ * Parts are null until loaded, concurrent misses of a part share one load.
+ */
+public final class BoardContext {
+
+    // context, cache node, board dto, subscriber list and capture sampler
+    static final long CONTEXT_BYTES = 512;
+    // drift allowed before re-weighing, at least this many bytes or 1/8 of the weight
+    private static final long REWEIGH_MIN_DELTA = 4_096;
+
+    private final String boardId;
+    private final List<SseSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final CaptureSampler captureSampler = new CaptureSampler(Constants.CAPTURE_FULL_RATE);
+
+    private volatile BoardDto board;
+    private volatile MockRuleTable mockRuleTable;
+    private volatile WebhookRing webhookRing;
+    private volatile long mockRuleTableBytes;
+    private volatile int weight;
+    private volatile boolean pinned;
+
+    private final SingleFlight<BoardDto> boardLoad = new SingleFlight<>();
+    private final SingleFlight<MockRuleTable> mockRuleTableLoad = new SingleFlight<>();
+    private final SingleFlight<WebhookRing> webhookRingLoad = new SingleFlight<>();
+
+    public BoardContext(String boardId) {
+        this.boardId = boardId;
+    }
+
+    public String boardId() {
+        return boardId;
+    }
+
+    public BoardDto board() {
+        return board;
+    }
+
+    public void setBoard(BoardDto board) {
+        this.board = board;
+    }
+
+    public BoardDto board(Supplier<BoardDto> loader) {
+        var current = board;
+        if (current != null) return current;
+        return boardLoad.load(() -> {
+            var loaded = board;
+            if (loaded == null) {
+                loaded = loader.get();
+                board = loaded;
+            }
+            return loaded;
+        });
+    }
+
+    public MockRuleTable mockRuleTable() {
+        return mockRuleTable;
+    }
+
+    public synchronized void setMockRuleTable(MockRuleTable mockRuleTable) {
+        this.mockRuleTable = mockRuleTable;
+        this.mockRuleTableBytes = estimate(mockRuleTable);
+    }
+
+    public MockRuleTable mockRuleTable(Supplier<MockRuleTable> loader) {
+        var current = mockRuleTable;
+        if (current != null) return current;
+        return mockRuleTableLoad.load(() -> {
+            var loaded = mockRuleTable;
+            if (loaded == null) {
+                loaded = loader.get();
+                setMockRuleTable(loaded);
+            }
+            return loaded;
+        });
+    }
+
+    // serialized per board, the update gets null when nothing is loaded
+    public synchronized void updateMockRuleTable(UnaryOperator<MockRuleTable> update) {
+        setMockRuleTable(update.apply(mockRuleTable));
+    }
+
+    public WebhookRing webhookRing() {
+        return webhookRing;
+    }
+
+    public void setWebhookRing(WebhookRing webhookRing) {
+        this.webhookRing = webhookRing;
+    }
+
+    public WebhookRing webhookRing(Supplier<WebhookRing> loader) {
+        var current = webhookRing;
+        if (current != null) return current;
+        return webhookRingLoad.load(() -> {
+            var loaded = webhookRing;
+            if (loaded == null) {
+                loaded = loader.get();
+                webhookRing = loaded;
+            }
+            return loaded;
+        });
+    }
+
+    public CaptureSampler captureSampler() {
+        return captureSampler;
+    }
+
+    // writers synchronize on it to keep the per-board limit
+    public List<SseSubscriber> subscribers() {
+        return subscribers;
+    }
+
+    public long mockRuleTableBytes() {
+        return mockRuleTableBytes;
+    }
+
+    public long webhookRingBytes() {
+        var ring = webhookRing;
+        return ring != null ? ring.estimatedBytes() : 0;
+    }
+
+    public long estimatedBytes() {
+        return CONTEXT_BYTES + mockRuleTableBytes + webhookRingBytes();
+    }
+
+    // remembered to tell when the weight the cache knows is outdated,
+    // 0 while there are subscribers: size eviction skips the context and open dashboards stay connected
+    int weigh() {
+        pinned = !subscribers.isEmpty();
+        var estimated = pinned ? 0 : (int) Math.min(Integer.MAX_VALUE, estimatedBytes());
+        this.weight = estimated;
+        return estimated;
+    }
+
+    boolean isWeightOutdated() {
+        if (pinned != !subscribers.isEmpty()) return true;
+        if (pinned) return false;
+        var current = weight;
+        return Math.abs(estimatedBytes() - current) > Math.max(REWEIGH_MIN_DELTA, current >> 3);
+    }
+
+    private static long estimate(MockRuleTable table) {
+        if (table == null) return 0;
+        var bytes = 0L;
+        for (var mockRule : table.mockRules()) {
+            bytes += MemoryUtils.estimate(mockRule);
+        }
+        return bytes;
+    }
+
+    // board deleted, subscribers reconnect and get a fresh context
+    void close() {
+        subscribers.forEach(SseSubscriber::close);
+        subscribers.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package dev.mockboard.common.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+import static dev.mockboard.Constants.CACHE_MEMORY_BUDGET_MB;
+import static dev.mockboard.Constants.DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES;
+
+/**
+ * One {@link BoardContext} per board,
+ * {@link BoardCache}, {@link MockRuleCache} and {@link WebhookCache} are views over it.
+ * Bounded by estimated retained bytes (MBD_CACHE_MEMORY_BUDGET_MB), not by board count.
+ */
+@Component
+public class BoardContextCache extends CaffeineEntityCache<BoardContext> implements MeterBinder {
+
+    private static final String CACHE_TAG = "board-context";
+
+    public BoardContextCache() {
+        this(CACHE_MEMORY_BUDGET_MB * 1024L * 1024L);
+    }
+
+    public BoardContextCache(long maxBytes) {
+        super(maxBytes, DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES, (key, context) -> context.weigh(), (key, context, cause) -> {
+            // only an explicit removal (board deleted), a context with subscribers weighs 0 and is not evicted by size
+            if (context != null && cause == RemovalCause.EXPLICIT) {
+                context.close();
+            }
+        });
+    }
+
+    public BoardContext context(String boardId) {
+        return cache.get(boardId, BoardContext::new);
+    }
+
+    public BoardContext getIfPresent(String boardId) {
+        return cache.getIfPresent(boardId);
+    }
+
+    // iterating it does not count as an access
+    public Collection<BoardContext> contexts() {
+        return cache.asMap().values();
+    }
+
+    // a context evicted or replaced meanwhile is left alone
+    public void reweigh(BoardContext context) {
+        if (context.isWeightOutdated()) {
+            cache.asMap().replace(context.boardId(), context, context);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mockboard.cache.weight", this, CaffeineEntityCache::weightedSize)
+                .description("Estimated retained bytes, as weighed by the cache")
+                .baseUnit("bytes")
+                .tag("cache", CACHE_TAG)
+                .register(registry);
+        Gauge.builder("mockboard.cache.weight.max", this, CaffeineEntityCache::maxWeight)
+                .description("Memory budget of the cache")
+                .baseUnit("bytes")
+                .tag("cache", CACHE_TAG)
+                .register(registry);
+        Gauge.builder("mockboard.cache.entries", this, CaffeineEntityCache::size)
+                .tag("cache", CACHE_TAG)
+                .register(registry);
+        FunctionCounter.builder("mockboard.cache.evicted.weight", this, c -> c.stats().evictionWeight())
+                .description("Weight evicted to stay within the budget")
+                .baseUnit("bytes")
+                .tag("cache", CACHE_TAG)
+                .register(registry);
+        // current estimate per part, the views that used to be separate caches
+        registerPart(registry, "boards", context -> BoardContext.CONTEXT_BYTES);
+        registerPart(registry, "mock-rules", BoardContext::mockRuleTableBytes);
+        registerPart(registry, "webhooks", BoardContext::webhookRingBytes);
+    }
+
+    private void registerPart(MeterRegistry registry, String part, ToLongFunction<BoardContext> bytes) {
+        Gauge.builder("mockboard.cache.estimated.bytes", this, c -> c.contexts().stream().mapToLong(bytes).sum())
+                .description("Current estimated retained bytes per part of the board context")
+                .baseUnit("bytes")
+                .tag("cache", CACHE_TAG)
+                .tag("part", part)
+                .register(registry);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.mockboard.common.cache;
+
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.utils.BinaryCodec;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static dev.mockboard.common.utils.BinaryCodec.readInstant;
+import static dev.mockboard.common.utils.BinaryCodec.readInteger;
+import static dev.mockboard.common.utils.BinaryCodec.readString;
+import static dev.mockboard.common.utils.BinaryCodec.writeInstant;
+import static dev.mockboard.common.utils.BinaryCodec.writeInteger;
+import static dev.mockboard.common.utils.BinaryCodec.writeString;
+
+/**
+ * Binary dump of the loaded {@link BoardContext} parts, written on shutdown and read on the next start.
+ * Only persisted fields are written, response plans are compiled again on load.
+ * Parts that were not loaded stay null in the {@link Entry}, unknown boards are not written.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BoardContextSnapshot {
+
+    private static final int MAGIC = 0x4D42_4353; // MBCS
+    private static final int FORMAT_VERSION = 1;
+
+    public record Entry(String boardId, BoardDto board, List<MockRuleDto> mockRules, List<WebhookDto> webhooks) {}
+
+    public record Snapshot(Instant createdAt, List<Entry> entries) {}
+
+    /**
+     * Writes to a temporary file first, a snapshot is either complete or absent.
+     *
+     * @return number of written contexts
+     */
+    public static int write(Path path, Collection<BoardContext> contexts) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        var written = 0;
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeInstant(out, Instant.now());
+            for (var context : contexts) {
+                var table = context.mockRuleTable();
+                var mockRules = table != null && table.boardExists() ? table.mockRules() : null;
+                var ring = context.webhookRing();
+                if (context.board() == null && mockRules == null && ring == null) continue;
+
+                out.writeBoolean(true);
+                writeString(out, context.boardId());
+                writeBoard(out, context.board());
+                writeList(out, mockRules, BoardContextSnapshot::writeMockRule);
+                writeList(out, ring != null ? ring.snapshot() : null, BinaryCodec::writeWebhook);
+                written++;
+            }
+            out.writeBoolean(false);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    public static Snapshot read(Path path) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a board context snapshot: " + path);
+            }
+            var createdAt = readInstant(in);
+            var entries = new ArrayList<Entry>();
+            while (in.readBoolean()) {
+                entries.add(new Entry(
+                        readString(in),
+                        readBoard(in),
+                        readList(in, BoardContextSnapshot::readMockRule),
+                        readList(in, BinaryCodec::readWebhookDto)
+                ));
+            }
+            return new Snapshot(createdAt, entries);
+        }
+    }
+
+    private static void writeBoard(DataOutputStream out, BoardDto board) throws IOException {
+        out.writeBoolean(board != null);
+        if (board == null) return;
+        writeString(out, board.getId());
+        writeString(out, board.getOwnerToken());
+        writeInstant(out, board.getTimestamp());
+    }
+
+    private static BoardDto readBoard(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+        return BoardDto.builder()
+                .id(readString(in))
+                .ownerToken(readString(in))
+                .timestamp(readInstant(in))
+                .build();
+    }
+
+    private static void writeMockRule(DataOutputStream out, MockRuleDto mockRule) throws IOException {
+        writeString(out, mockRule.getId());
+        writeString(out, mockRule.getBoardId());
+        writeString(out, mockRule.getMethod());
+        writeString(out, mockRule.getPath());
+        writeString(out, mockRule.getHeaders());
+        writeString(out, mockRule.getBody());
+        writeInteger(out, mockRule.getStatusCode());
+        writeInteger(out, mockRule.getDelay());
+        writeInstant(out, mockRule.getTimestamp());
+    }
+
+    private static MockRuleDto readMockRule(DataInputStream in) throws IOException {
+        return MockRuleDto.builder()
+                .id(readString(in))
+                .boardId(readString(in))
+                .method(readString(in))
+                .path(readString(in))
+                .headers(readString(in))
+                .body(readString(in))
+                .statusCode(readInteger(in))
+                .delay(readInteger(in))
+                .timestamp(readInstant(in))
+                .build();
+    }
+
+    private interface Writer<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static <T> void writeList(DataOutputStream out, List<T> values, Writer<T> writer) throws IOException {
+        out.writeInt(values != null ? values.size() : -1);
+        if (values == null) return;
+        for (var value : values) {
+            writer.write(out, value);
+        }
+    }
+
+    private static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        var size = in.readInt();
+        if (size < 0) return null;
+        var values = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(reader.read(in));
+        }
+        return values;
+    }
+}
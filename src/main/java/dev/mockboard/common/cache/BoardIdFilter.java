@@ -0,0 +1,176 @@
+package dev.mockboard.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.mockboard.Constants.BOARD_FILTER_EXPECTED_BOARDS;
+import static dev.mockboard.Constants.BOARD_FILTER_FALSE_POSITIVE_RATE;
+
+/**
+ * Counting Bloom filter over active board ids, checked before any cache or DB lookup on /m/ requests.
+ * 4-bit counters (16 per long) so deleted boards can be removed, a saturated counter is never decremented.
+ * No false negatives once {@link #init(Collection)} is done, until then everything passes through.
+ */
+@Slf4j
+@Component
+public class BoardIdFilter implements MeterBinder {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+
+    private final int counters;
+    private final int hashes;
+    private final AtomicLongArray words;
+
+    private final AtomicLong nonZeroCounters = new AtomicLong();
+    private final AtomicLong entries = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private volatile boolean initialized = false;
+
+    public BoardIdFilter() {
+        this(BOARD_FILTER_EXPECTED_BOARDS, BOARD_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    public BoardIdFilter(int expectedBoards, double falsePositiveRate) {
+        var ln2 = Math.log(2);
+        var optimalCounters = Math.ceil(-expectedBoards * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counters = (int) Math.max(COUNTERS_PER_WORD, Math.min(optimalCounters, Integer.MAX_VALUE - COUNTERS_PER_WORD));
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedBoards * ln2));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    public void init(Collection<String> boardIds) {
+        boardIds.forEach(this::add);
+        initialized = true;
+        log.info("Board id filter initialized: {} boards, {} counters, {} hashes", boardIds.size(), counters, hashes);
+    }
+
+    public boolean mightContain(String boardId) {
+        if (!initialized) return true;
+        if (boardId == null) return false;
+
+        long hash = hash(boardId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            if (counterAt(index(h1, h2, i)) == 0) {
+                rejected.increment();
+                return false;
+            }
+        }
+        passed.increment();
+        return true;
+    }
+
+    public void add(String boardId) {
+        long hash = hash(boardId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            update(index(h1, h2, i), 1);
+        }
+        entries.incrementAndGet();
+    }
+
+    public void remove(String boardId) {
+        long hash = hash(boardId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            update(index(h1, h2, i), -1);
+        }
+        entries.decrementAndGet();
+    }
+
+    // a board passed the filter but turned out to be unknown further down
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // fp / (fp + rejected)
+    public double observedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long total = fp + rejected.sum();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    // (non-zero counters / counters) ^ hashes
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) nonZeroCounters.get() / counters, hashes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mockboard.board.filter.fpp.observed", this, BoardIdFilter::observedFalsePositiveRate)
+                .description("Unknown board ids that passed the filter")
+                .register(registry);
+        Gauge.builder("mockboard.board.filter.fpp.expected", this, BoardIdFilter::expectedFalsePositiveRate)
+                .description("Theoretical false positive rate for the current fill")
+                .register(registry);
+        Gauge.builder("mockboard.board.filter.entries", entries, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("mockboard.board.filter.checks", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("mockboard.board.filter.checks", passed, LongAdder::sum)
+                .tag("result", "passed")
+                .register(registry);
+        FunctionCounter.builder("mockboard.board.filter.false.positives", falsePositives, LongAdder::sum)
+                .register(registry);
+    }
+
+    private int index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) combined = ~combined;
+        return combined % counters;
+    }
+
+    private int counterAt(int index) {
+        int shift = (index % COUNTERS_PER_WORD) * 4;
+        return (int) ((words.get(index / COUNTERS_PER_WORD) >>> shift) & COUNTER_MASK);
+    }
+
+    private void update(int index, int delta) {
+        int wordIndex = index / COUNTERS_PER_WORD;
+        int shift = (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long word = words.get(wordIndex);
+            long counter = (word >>> shift) & COUNTER_MASK;
+            // saturated counters stay, an empty one has nothing to remove
+            if (counter == COUNTER_MASK || (delta < 0 && counter == 0)) return;
+
+            long updated = (word & ~(COUNTER_MASK << shift)) | ((counter + delta) << shift);
+            if (words.compareAndSet(wordIndex, word, updated)) {
+                if (counter == 0) nonZeroCounters.incrementAndGet();
+                else if (counter + delta == 0) nonZeroCounters.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    // 64-bit FNV-1a, split into two 32-bit hashes for double hashing
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // final avalanche, FNV alone mixes the high bits poorly
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
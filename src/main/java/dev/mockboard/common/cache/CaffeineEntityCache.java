@@ -2,6 +2,9 @@ package dev.mockboard.common.cache;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 import java.util.Optional;
@@ -12,10 +15,14 @@ public abstract class CaffeineEntityCache<T> implements EntityCache<T> {
 
     protected final Cache<String, T> cache;
 
-    public CaffeineEntityCache(long maxSize, int ttlMinutes) {
+    // maxWeight in the weigher units, bytes for the entity caches
+    public CaffeineEntityCache(long maxWeight, int ttlMinutes, Weigher<String, T> weigher,
+                               RemovalListener<String, T> removalListener) {
         this.cache = Caffeine.newBuilder()
-                .maximumSize(maxSize)
+                .maximumWeight(maxWeight)
+                .weigher(weigher)
                 .expireAfterAccess(ttlMinutes, TimeUnit.MINUTES)
+                .removalListener(removalListener)
                 .recordStats()
                 .build();
     }
@@ -54,4 +61,21 @@ public abstract class CaffeineEntityCache<T> implements EntityCache<T> {
     public CacheStats stats() {
         return cache.stats();
     }
+
+    // pending evictions and weight updates right away instead of on the next writes
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public long weightedSize() {
+        return eviction().weightedSize().orElse(0);
+    }
+
+    public long maxWeight() {
+        return eviction().getMaximum();
+    }
+
+    private Policy.Eviction<String, T> eviction() {
+        return cache.policy().eviction().orElseThrow();
+    }
 }
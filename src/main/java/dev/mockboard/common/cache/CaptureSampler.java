@@ -0,0 +1,78 @@
+package dev.mockboard.common.cache;
+
+import dev.mockboard.common.domain.response.CaptureStatsResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive capture policy of one board. Up to MBD_CAPTURE_FULL_RATE requests per second are all captured,
+ * above it every Nth, N sized from the larger of the last and the current one second window.
+ */
+public final class CaptureSampler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int fullRate;
+    private final LongSupplier clock;
+
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private volatile long window;
+    private volatile int lastWindowCount;
+    private volatile int sampleEvery = 1;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder captured = new LongAdder();
+
+    public CaptureSampler(int fullRate) {
+        this(fullRate, System::nanoTime);
+    }
+
+    public CaptureSampler(int fullRate, LongSupplier clock) {
+        this.fullRate = Math.max(1, fullRate);
+        this.clock = clock;
+        this.window = clock.getAsLong() / WINDOW_NANOS;
+    }
+
+    public boolean admit() {
+        requests.increment();
+        roll();
+
+        var count = windowCount.incrementAndGet();
+        var rate = Math.max(lastWindowCount, count);
+        var every = rate <= fullRate ? 1 : (rate + fullRate - 1) / fullRate;
+        sampleEvery = every;
+        if (count % every != 0) return false;
+
+        captured.increment();
+        return true;
+    }
+
+    public boolean isSampling() {
+        roll();
+        return Math.max(lastWindowCount, windowCount.get()) > fullRate;
+    }
+
+    public CaptureStatsResponse stats() {
+        var sampling = isSampling();
+        var requestCount = requests.sum();
+        var capturedCount = captured.sum();
+        return new CaptureStatsResponse(sampling, sampling ? sampleEvery : 1, lastWindowCount,
+                requestCount, capturedCount, requestCount - capturedCount);
+    }
+
+    private void roll() {
+        var current = clock.getAsLong() / WINDOW_NANOS;
+        if (current == window) return;
+
+        synchronized (this) {
+            if (current == window) return;
+            var count = windowCount.getAndSet(0);
+            // a quiet second in between resets the rate
+            lastWindowCount = current == window + 1 ? count : 0;
+            window = current;
+        }
+    }
+}
@@ -1,69 +1,105 @@
 package dev.mockboard.common.cache;
 
 import dev.mockboard.Constants;
+import dev.mockboard.common.domain.MockRuleTable;
 import dev.mockboard.common.domain.dto.MockRuleDto;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
-import static dev.mockboard.Constants.DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES;
-import static dev.mockboard.Constants.DEFAULT_CACHE_MAX_ENTRIES;
-
+/**
+ * Rule table part of the {@link BoardContext}.
+ */
 @Component
-public class MockRuleCache extends CaffeineEntityCache<List<MockRuleDto>> {
+@RequiredArgsConstructor
+public class MockRuleCache {
 
-    public MockRuleCache() {
-        super(DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES);
-    }
+    private final BoardContextCache boardContextCache;
 
     public void addMockRules(String key, List<MockRuleDto> mockRules) {
-        var list = new ArrayList<MockRuleDto>(Constants.MAX_MOCK_RULES);
-        list.addAll(mockRules);
-        cache.put(key, list);
+        put(key, MockRuleTable.of(mockRules));
+    }
+
+    public void put(String key, MockRuleTable table) {
+        var context = boardContextCache.context(key);
+        context.setMockRuleTable(table);
+        boardContextCache.reweigh(context);
     }
 
     public void addMockRule(String key, MockRuleDto mockRule) {
-        cache.asMap().compute(key, (k, mocks) -> {
-            var mutableMocks = (CollectionUtils.isEmpty(mocks))
+        update(boardContextCache.context(key), table -> {
+            var mutableMocks = (table == null || table.isEmpty())
                     ? new ArrayList<MockRuleDto>(Constants.MAX_MOCK_RULES)
-                    : new ArrayList<>(mocks);
+                    : new ArrayList<>(table.mockRules());
             mutableMocks.add(mockRule);
-            return mutableMocks;
+            return MockRuleTable.of(mutableMocks);
         });
     }
 
     public void updateMockRule(String key, MockRuleDto mockRule) {
-        cache.asMap().compute(key, (k, mocks) -> {
-            if (CollectionUtils.isEmpty(mocks)) {
-                return new ArrayList<>(List.of(mockRule));
+        update(boardContextCache.context(key), table -> {
+            if (table == null || table.isEmpty()) {
+                return MockRuleTable.of(List.of(mockRule));
             }
 
-            var newList = new ArrayList<>(mocks);
+            var newList = new ArrayList<>(table.mockRules());
             newList.removeIf(m -> m.getId().equals(mockRule.getId()));
             newList.add(mockRule);
-            return newList;
+            return MockRuleTable.of(newList);
         });
     }
 
+    // null on a miss, EMPTY and UNKNOWN_BOARD are the negative cache states
+    public MockRuleTable getMockRuleTable(String key) {
+        var context = boardContextCache.getIfPresent(key);
+        return context != null ? context.mockRuleTable() : null;
+    }
+
+    public MockRuleTable getMockRuleTable(String key, Function<String, MockRuleTable> loader) {
+        return getMockRuleTable(boardContextCache.context(key), loader);
+    }
+
+    public MockRuleTable getMockRuleTable(BoardContext context, Function<String, MockRuleTable> loader) {
+        var table = context.mockRuleTable();
+        if (table != null) return table;
+
+        table = context.mockRuleTable(() -> loader.apply(context.boardId()));
+        boardContextCache.reweigh(context);
+        return table;
+    }
+
+    public void markEmpty(String key) {
+        put(key, MockRuleTable.EMPTY);
+    }
+
+    // newest first, the table's own list, reads do not allocate
     public List<MockRuleDto> getMockRules(String key) {
-        var mockRules = cache.getIfPresent(key);
-        if (CollectionUtils.isEmpty(mockRules)) {
+        var table = getMockRuleTable(key);
+        if (table == null) {
             return Collections.emptyList();
         }
-        return mockRules.stream()
-                .sorted(Comparator.comparing(MockRuleDto::getTimestamp).reversed())
-                .toList();
+        return table.mockRules();
     }
 
     public void deleteMockRule(String key, String mockRuleId) {
-        cache.asMap().computeIfPresent(key, (k, mocks) -> {
-            var newList = new ArrayList<>(mocks);
+        var context = boardContextCache.getIfPresent(key);
+        if (context == null) return;
+
+        update(context, table -> {
+            if (table == null) return null;
+            var newList = new ArrayList<>(table.mockRules());
             newList.removeIf(mockRule -> mockRule.getId().equals(mockRuleId));
-            return newList;
+            return MockRuleTable.of(newList);
         });
     }
+
+    private void update(BoardContext context, UnaryOperator<MockRuleTable> update) {
+        context.updateMockRuleTable(update);
+        boardContextCache.reweigh(context);
+    }
 }
@@ -0,0 +1,46 @@
+package dev.mockboard.common.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * At most one load in flight: concurrent callers wait for the running load instead of starting their own.
+ * A failed load fails every caller waiting on it, the next caller starts a new one.
+ * Loaders should re-check whether a previous flight already stored the value.
+ */
+final class SingleFlight<T> {
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    T load(Supplier<T> loader) {
+        var flight = new CompletableFuture<T>();
+        var running = inFlight.compareAndExchange(null, flight);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            var value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // same exception the loading caller got, e.g. NotFoundException
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -2,77 +2,68 @@ package dev.mockboard.common.cache;
 
 import dev.mockboard.Constants;
 import dev.mockboard.common.domain.dto.WebhookDto;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-
-import static dev.mockboard.Constants.DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES;
-import static dev.mockboard.Constants.DEFAULT_CACHE_MAX_ENTRIES;
+import java.util.function.Function;
 
+/**
+ * Webhook ring part of the {@link BoardContext}, the latest MAX_WEBHOOKS captures per board.
+ */
 @Component
-public class WebhookCache extends CaffeineEntityCache<List<WebhookDto>> {
+@RequiredArgsConstructor
+public class WebhookCache {
 
-    public WebhookCache() {
-        super(DEFAULT_CACHE_MAX_ENTRIES, DEFAULT_CACHE_EXP_AFTER_ACCESS_MINUTES);
-    }
+    private final BoardContextCache boardContextCache;
 
     public void addWebhooks(String key, List<WebhookDto> webhooks) {
-        var list = new ArrayList<WebhookDto>(Constants.MAX_WEBHOOKS);
-        list.addAll(webhooks);
-        cache.put(key, list);
+        var context = boardContextCache.context(key);
+        context.setWebhookRing(WebhookRing.of(Constants.MAX_WEBHOOKS, webhooks));
+        boardContextCache.reweigh(context);
+    }
+
+    public boolean addWebhook(String key, WebhookDto webhook) {
+        return addWebhook(boardContextCache.context(key), webhook);
+    }
+
+    // true when webhook took over the id of the evicted capture, its row is updated instead of inserted
+    public boolean addWebhook(BoardContext context, WebhookDto webhook) {
+        var recycled = context.webhookRing(() -> new WebhookRing(Constants.MAX_WEBHOOKS)).add(webhook);
+        // map lookup only once the ring size drifted from the cache weight
+        boardContextCache.reweigh(context);
+        return recycled;
+    }
+
+    // an empty result is cached as an empty ring
+    public void load(String key, Function<String, List<WebhookDto>> loader) {
+        load(boardContextCache.context(key), loader);
     }
 
-    public WebhookDto addWebhook(String key, WebhookDto webhook) {
-        var resultWrapper = new AtomicReference<WebhookDto>();
-        cache.asMap().compute(key, (k, webhooks) -> {
-            // given the small collection size, TreeSet would be overkill here
-           var mutableWebhooks = (CollectionUtils.isEmpty(webhooks))
-                   ? new ArrayList<WebhookDto>(Constants.MAX_WEBHOOKS)
-                   : new ArrayList<>(webhooks);
+    public void load(BoardContext context, Function<String, List<WebhookDto>> loader) {
+        if (context.webhookRing() != null) return;
+
+        context.webhookRing(() -> WebhookRing.of(Constants.MAX_WEBHOOKS, loader.apply(context.boardId())));
+        boardContextCache.reweigh(context);
+    }
 
-            // objects recycling
-            // reuses old objects when size > MAX_WEBHOOKS
-            // kepping id and boardId, remapping rest of the fields
-           if (mutableWebhooks.size() >= Constants.MAX_WEBHOOKS) {
-               var lastWebhook = recycleOldestWebhookDto(webhook, mutableWebhooks);
-               resultWrapper.set(lastWebhook);
-           } else {
-               mutableWebhooks.add(webhook);
-               resultWrapper.set(webhook);
-           }
-           return mutableWebhooks;
-        });
-        return resultWrapper.get();
+    public CaptureSampler captureSampler(String key) {
+        return boardContextCache.context(key).captureSampler();
     }
 
-    private WebhookDto recycleOldestWebhookDto(WebhookDto webhook, ArrayList<WebhookDto> mutableWebhooks) {
-        var oldWebhook = Collections.min(mutableWebhooks, Comparator.comparing(WebhookDto::getTimestamp));
-        oldWebhook.setMethod(webhook.getMethod());
-        oldWebhook.setPath(webhook.getPath());
-        oldWebhook.setFullUrl(webhook.getFullUrl());
-        oldWebhook.setQueryParams(webhook.getQueryParams());
-        oldWebhook.setHeaders(webhook.getHeaders());
-        oldWebhook.setBody(webhook.getBody());
-        oldWebhook.setContentType(webhook.getContentType());
-        oldWebhook.setStatusCode(webhook.getStatusCode());
-        oldWebhook.setMatched(webhook.getMatched());
-        oldWebhook.setTimestamp(webhook.getTimestamp());
-        oldWebhook.setProcessingTimeMs(webhook.getProcessingTimeMs());
-        return oldWebhook;
+    public List<WebhookDto> getWebhooks(String key, Function<String, List<WebhookDto>> loader) {
+        var context = boardContextCache.context(key);
+        load(context, loader);
+        return context.webhookRing().snapshot();
     }
 
     public List<WebhookDto> getWebhooks(String boardId) {
-        var webhooks = cache.getIfPresent(boardId);
-        if (CollectionUtils.isEmpty(webhooks)) {
+        var context = boardContextCache.getIfPresent(boardId);
+        var ring = context != null ? context.webhookRing() : null;
+        if (ring == null) {
             return Collections.emptyList();
         }
-        return webhooks.stream()
-                .sorted(Comparator.comparing(WebhookDto::getTimestamp).reversed())
-                .toList();
+        return ring.snapshot();
     }
 }
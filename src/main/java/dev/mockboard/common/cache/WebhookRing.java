@@ -0,0 +1,90 @@
+package dev.mockboard.common.cache;
+
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.utils.MemoryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity ring of the latest captured requests of one board.
+ * A writer claims the next sequence number and swaps its slot with a CAS, the oldest capture is evicted implicitly.
+ * Slots hold immutable entries and a published WebhookDto is never modified, readers walk back from the sequence
+ * and get the captures newest-first without sorting or locking.
+ */
+public final class WebhookRing {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    private record Entry(long seq, WebhookDto webhook) {}
+
+    public WebhookRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public static WebhookRing of(int capacity, Collection<WebhookDto> webhooks) {
+        var ring = new WebhookRing(capacity);
+        webhooks.stream()
+                .sorted(Comparator.comparing(WebhookDto::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(ring::add);
+        return ring;
+    }
+
+    /**
+     * Appends a capture not visible to anyone else yet. On a full ring it takes over the id of the evicted one,
+     * so the persisted row is reused.
+     *
+     * @return true when an older capture was evicted and its id reused
+     */
+    public boolean add(WebhookDto webhook) {
+        var seq = sequence.getAndIncrement();
+        var originalId = webhook.getId();
+        while (true) {
+            var index = (int) (seq % slots.length());
+            var current = slots.get(index);
+            if (current != null && current.seq() > seq) {
+                // lapped by a newer writer, only possible with more in-flight captures than capacity,
+                // retried on a new sequence: a capture outside the ring would get a row that is never recycled
+                seq = sequence.getAndIncrement();
+                continue;
+            }
+            webhook.setId(current != null ? current.webhook().getId() : originalId);
+            if (slots.compareAndSet(index, current, new Entry(seq, webhook))) {
+                var evictedBytes = current != null ? MemoryUtils.estimate(current.webhook()) : 0;
+                estimatedBytes.addAndGet(MemoryUtils.estimate(webhook) - evictedBytes);
+                return current != null;
+            }
+        }
+    }
+
+    // newest first, slots claimed but not written yet, or already overwritten, are skipped
+    public List<WebhookDto> snapshot() {
+        var last = sequence.get() - 1;
+        var first = Math.max(0, last - slots.length() + 1);
+        var webhooks = new ArrayList<WebhookDto>((int) (last - first + 1));
+        for (var seq = last; seq >= first; seq--) {
+            var entry = slots.get((int) (seq % slots.length()));
+            if (entry != null && entry.seq() == seq) {
+                webhooks.add(entry.webhook());
+            }
+        }
+        return webhooks;
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    public boolean isEmpty() {
+        return sequence.get() == 0;
+    }
+}
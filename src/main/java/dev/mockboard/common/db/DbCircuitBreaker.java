@@ -0,0 +1,164 @@
+package dev.mockboard.common.db;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker around DB access, see DbCircuitBreakerAspect.
+ * Opens after MBD_DB_BREAKER_FAILURE_THRESHOLD consecutive failed or slow calls, then rejects calls right away
+ * instead of waiting for the pool timeout: /m/ serves cached boards only and captures are spilled to disk.
+ * After MBD_DB_BREAKER_OPEN_MS one trial call is let through, it closes the breaker or opens it again.
+ * Reported as health component, DEGRADED while not closed, without taking the application down.
+ */
+@Slf4j
+@Component
+public class DbCircuitBreaker implements HealthIndicator, MeterBinder {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Database unavailable, serving from cache only");
+
+    public enum State {CLOSED, HALF_OPEN, OPEN}
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long slowCallNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedNanos;
+    private volatile Instant openedAt;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public DbCircuitBreaker() {
+        this(Constants.DB_BREAKER_FAILURE_THRESHOLD,
+                Duration.ofMillis(Constants.DB_BREAKER_OPEN_MS),
+                Duration.ofMillis(Constants.DB_BREAKER_SLOW_CALL_MS));
+    }
+
+    public DbCircuitBreaker(int failureThreshold, Duration openDuration, Duration slowCall) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.slowCallNanos = slowCall.toNanos();
+    }
+
+    // throws ServiceUnavailableException when open, or half-open with the trial call in flight
+    public void acquire() {
+        var current = state.get();
+        if (current == State.CLOSED) return;
+
+        if (current == State.OPEN
+                && System.nanoTime() - openedNanos >= openNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            log.info("DB circuit breaker half-open, trial call");
+            return;
+        }
+        rejected.increment();
+        throw new ServiceUnavailableException("Database unavailable, serving from cache only");
+    }
+
+    // a call that got an answer from the DB is a success, unless it was slow
+    public void record(long elapsedNanos, Throwable error) {
+        if ((error != null && isUnavailable(error)) || elapsedNanos >= slowCallNanos) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+    }
+
+    public void reset() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("DB circuit breaker reset");
+        }
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    // errors that say nothing about the DB state are not counted
+    public static boolean isUnavailable(Throwable error) {
+        for (var e = error; e != null; e = e.getCause()) {
+            if (e instanceof ServiceUnavailableException
+                    || e instanceof DataAccessResourceFailureException
+                    || e instanceof TransientDataAccessException
+                    || e instanceof RecoverableDataAccessException
+                    || e instanceof CannotCreateTransactionException
+                    || e instanceof SQLTransientException
+                    || e instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (e.getCause() == e) break;
+        }
+        return false;
+    }
+
+    @Override
+    public Health health() {
+        var current = state.get();
+        var builder = current == State.CLOSED ? Health.up() : Health.status(DEGRADED);
+        builder.withDetail("state", current.name().toLowerCase())
+                .withDetail("consecutiveFailures", consecutiveFailures.get());
+        if (current != State.CLOSED) {
+            builder.withDetail("openedAt", openedAt);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mockboard.db.breaker.state", state, s -> s.get().ordinal())
+                .description("DB circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+        FunctionCounter.builder("mockboard.db.breaker.opened", opened, LongAdder::sum)
+                .description("Times the DB circuit breaker opened")
+                .register(registry);
+        FunctionCounter.builder("mockboard.db.breaker.rejected", rejected, LongAdder::sum)
+                .description("DB calls rejected while the circuit breaker was open")
+                .register(registry);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            log.info("DB circuit breaker closed, database is back");
+        }
+    }
+
+    private void onFailure() {
+        var failures = consecutiveFailures.incrementAndGet();
+        if (state.compareAndSet(State.HALF_OPEN, State.OPEN)
+                || (failures >= failureThreshold && state.compareAndSet(State.CLOSED, State.OPEN))) {
+            openedNanos = System.nanoTime();
+            openedAt = Instant.now();
+            opened.increment();
+            log.warn("DB circuit breaker open after {} failed or slow calls, serving from cache only", failures);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package dev.mockboard.common.domain;
 
+import dev.mockboard.common.cache.BoardContext;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import org.springframework.http.HttpHeaders;
 
+/**
+ * @param boardContext context the request was executed against, reused for the capture
+ */
 public record MockExecutionResult(
+        BoardContext boardContext,
         MockRuleDto matchingMockRuleDto,
         HttpHeaders headers,
-        String responseBody,
-        int statusCode) {}
+        byte[] responseBody,
+        boolean staticBody,
+        int statusCode,
+        int delay) {}
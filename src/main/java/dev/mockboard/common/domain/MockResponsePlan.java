@@ -0,0 +1,39 @@
+package dev.mockboard.common.domain;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.faker.FakerTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Everything needed to answer a matched rule, compiled once when the rule is created, updated or loaded.
+ * A body without faker values is static and kept pre-encoded as UTF-8.
+ *
+ * @param headers    read-only
+ * @param template   body parsed into literal chunks and faker values
+ * @param staticBody encoded body, null when the template has faker values and must be rendered per request
+ */
+public record MockResponsePlan(int statusCode, HttpHeaders headers, FakerTemplate template, byte[] staticBody, int delay) {
+
+    /**
+     * Response when no rule matched.
+     */
+    public static final MockResponsePlan DEFAULT = new MockResponsePlan(
+            200,
+            jsonHeaders(),
+            FakerTemplate.literal(Constants.DEFAULT_EXECUTION_RESPONSE),
+            Constants.DEFAULT_EXECUTION_RESPONSE.getBytes(StandardCharsets.UTF_8),
+            0);
+
+    public boolean isStatic() {
+        return staticBody != null;
+    }
+
+    public static HttpHeaders jsonHeaders() {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
@@ -0,0 +1,49 @@
+package dev.mockboard.common.domain;
+
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.routing.MockRouteTrie;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Board mock rules together with the routing trie compiled from them.
+ * Built once per rules change, never mutated afterward. mockRules is an unmodifiable list, newest first.
+ * Rules in a published table are not modified either, a change builds new rule copies and a new table,
+ * so a reader holding a table always sees one consistent version of every rule.
+ * <p>
+ * version is an epoch taken from a global counter, so it only grows, also across cache evictions and reloads.
+ * It is 0 for the shared empty states, they never have any content to tell apart.
+ * <p>
+ * Also serves as the negative cache entry: {@link #EMPTY} is a known board without rules,
+ * {@link #UNKNOWN_BOARD} is a board id that does not exist (or was deleted).
+ */
+public record MockRuleTable(List<MockRuleDto> mockRules, MockRouteTrie routes, boolean boardExists, long version) {
+
+    public static final MockRuleTable EMPTY = new MockRuleTable(List.of(), MockRouteTrie.EMPTY, true, 0);
+    public static final MockRuleTable UNKNOWN_BOARD = new MockRuleTable(List.of(), MockRouteTrie.EMPTY, false, 0);
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final Comparator<MockRuleDto> NEWEST_FIRST = Comparator.comparing(
+            MockRuleDto::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    public static MockRuleTable of(Collection<MockRuleDto> mockRules) {
+        if (mockRules == null || mockRules.isEmpty()) return EMPTY;
+
+        var ordered = mockRules.stream()
+                .sorted(NEWEST_FIRST)
+                .toList();
+        return new MockRuleTable(ordered, MockRouteTrie.build(ordered), true, VERSIONS.incrementAndGet());
+    }
+
+    public MockRuleDto match(String method, String path) {
+        return routes.match(method, path);
+    }
+
+    public boolean isEmpty() {
+        return mockRules.isEmpty();
+    }
+}
@@ -1,12 +1,69 @@
 package dev.mockboard.common.domain;
 
+import tools.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Raw capture of a /m/ request, taken on the request thread without any encoding.
+ * Full URL, headers JSON and the body string are built from it on the async webhook side.
+ *
+ * @param path         request URI
+ * @param headerNames  same length as headerValues
+ * @param requestBody  raw body bytes, empty when there is no body
+ */
 public record RequestMetadata(
         String method,
         String path,
         String mockPath,
-        String fullUrl,
+        String scheme,
+        String serverName,
+        int serverPort,
         String queryParams,
-        String headers,
-        String requestBody,
+        String[] headerNames,
+        String[] headerValues,
+        byte[] requestBody,
         String contentType
-) {}
+) {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    // as HttpServletRequest#getRequestURL, default ports are left out
+    public String fullUrl() {
+        return fullUrl(new StringBuilder(scheme.length() + serverName.length() + path.length() + 10));
+    }
+
+    public String fullUrl(StringBuilder sb) {
+        sb.append(scheme).append("://").append(serverName);
+        var port = serverPort < 0 ? 80 : serverPort;
+        if (("http".equals(scheme) && port != 80) || ("https".equals(scheme) && port != 443)) {
+            sb.append(':').append(port);
+        }
+        return sb.append(path).toString();
+    }
+
+    // flat JSON object, in capture order
+    public String headersJson() {
+        if (headerNames == null || headerNames.length == 0) return "{}";
+        return headersJson(new StringBuilder(headerNames.length * 32));
+    }
+
+    public String headersJson(StringBuilder sb) {
+        if (headerNames == null || headerNames.length == 0) return "{}";
+
+        sb.append('{');
+        for (int i = 0; i < headerNames.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"');
+            ENCODER.quoteAsString(headerNames[i], sb);
+            sb.append("\":\"");
+            ENCODER.quoteAsString(headerValues[i], sb);
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    public String requestBodyString() {
+        return requestBody != null ? new String(requestBody, StandardCharsets.UTF_8) : null;
+    }
+}
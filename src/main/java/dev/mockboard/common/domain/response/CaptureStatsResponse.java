@@ -0,0 +1,13 @@
+package dev.mockboard.common.domain.response;
+
+/**
+ * Capture state of a board: whether requests are sampled, 1 in how many is kept, the last second's rate
+ * and the totals since the board was loaded.
+ */
+public record CaptureStatsResponse(boolean sampling,
+                                   int sampleEvery,
+                                   int requestsPerSecond,
+                                   long requests,
+                                   long captured,
+                                   long skipped) {
+}
@@ -0,0 +1,274 @@
+package dev.mockboard.common.executor;
+
+import dev.mockboard.Constants;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Striped executor for per-board work: a fixed number of lanes, each drained by one thread, a board always hashed
+ * to the same lane. Tasks of a board run one at a time in submission order, without locking on the board state.
+ * Lanes are bounded, a full lane applies the {@link LaneOverflowPolicy} (MBD_WEBHOOK_LANE_OVERFLOW_POLICY).
+ * Consecutive items of the same batch handler are handed over together, up to MBD_WEBHOOK_LANE_BATCH_SIZE.
+ * <p>
+ * Stops after the web server and before the cache snapshot, pending tasks still run.
+ * A task submitted while stopping runs on the submitting thread once the lane worker is done.
+ */
+@Slf4j
+@Component
+public class BoardLaneExecutor implements SmartLifecycle, MeterBinder {
+
+    private final Lane[] lanes;
+    private final int laneCapacity;
+    private final LaneOverflowPolicy overflowPolicy;
+    private final long blockNanos;
+    private final int batchSize = Math.max(1, Constants.WEBHOOK_LANE_BATCH_SIZE);
+    private volatile boolean running = true;
+
+    public BoardLaneExecutor() {
+        this(Constants.WEBHOOK_LANES, Constants.WEBHOOK_LANE_CAPACITY,
+                LaneOverflowPolicy.parse(Constants.WEBHOOK_LANE_OVERFLOW_POLICY),
+                Duration.ofMillis(Constants.WEBHOOK_LANE_BLOCK_MS));
+    }
+
+    public BoardLaneExecutor(int lanes, int laneCapacity, LaneOverflowPolicy overflowPolicy) {
+        this(lanes, laneCapacity, overflowPolicy, Duration.ofMillis(Constants.WEBHOOK_LANE_BLOCK_MS));
+    }
+
+    public BoardLaneExecutor(int lanes, int laneCapacity, LaneOverflowPolicy overflowPolicy, Duration blockTimeout) {
+        if (lanes <= 0 || laneCapacity <= 0) {
+            throw new IllegalArgumentException("Lanes and lane capacity must be positive");
+        }
+        this.laneCapacity = laneCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockNanos = blockTimeout.toNanos();
+        this.lanes = new Lane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane(i);
+        }
+        log.info("Initialized board lane executor with {} lanes of {} tasks, overflow policy {}",
+                lanes, laneCapacity, overflowPolicy);
+    }
+
+    public void execute(String boardId, Runnable task) {
+        submit(boardId, new Task(task, null, null, System.nanoTime()));
+    }
+
+    // batches are made per lane, so they mix boards; the handler is compared by identity
+    @SuppressWarnings("unchecked")
+    public <T> void execute(String boardId, T item, Consumer<List<T>> batchHandler) {
+        submit(boardId, new Task(null, item, (Consumer<List<Object>>) (Consumer<?>) batchHandler, System.nanoTime()));
+    }
+
+    private void submit(String boardId, Task task) {
+        var lane = lanes[laneIndex(boardId)];
+        if (lane.offer(task) || (overflowPolicy == LaneOverflowPolicy.BLOCK && offerWithin(lane, task))) {
+            if (!running) {
+                // stopping, the worker may have exited without seeing the task
+                lane.drainAfterStop();
+            }
+            return;
+        }
+
+        lane.rejected.increment();
+        log.debug("Lane {} full, dropped task of board {}", lane.index, boardId);
+    }
+
+    private boolean offerWithin(Lane lane, Task task) {
+        var deadline = System.nanoTime() + blockNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (lane.offer(task)) return true;
+        }
+        return false;
+    }
+
+    public int laneIndex(String boardId) {
+        var hash = boardId.hashCode();
+        // spread the high bits, board ids share prefixes
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    public int pending() {
+        var pending = 0;
+        for (var lane : lanes) {
+            pending += lane.depth.get();
+        }
+        return pending;
+    }
+
+    @Override
+    public void start() {
+        // lane threads start with the executor
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (var lane : lanes) {
+            LockSupport.unpark(lane.worker);
+        }
+        for (var lane : lanes) {
+            lane.drainAfterStop();
+        }
+        log.info("Board lane executor stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // web server stops at DEFAULT_PHASE - 2048, cache snapshot at DEFAULT_PHASE - 4096
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var lane : lanes) {
+            var tag = String.valueOf(lane.index);
+            Gauge.builder("mockboard.webhooks.lane.depth", lane.depth, AtomicInteger::get)
+                    .description("Tasks waiting in the lane")
+                    .tag("lane", tag)
+                    .register(registry);
+            FunctionTimer.builder("mockboard.webhooks.lane.latency", lane,
+                            l -> l.completed.sum(), l -> l.latencyNanos.sum(), TimeUnit.NANOSECONDS)
+                    .description("Tasks run by the lane and the time from submission to completion")
+                    .tag("lane", tag)
+                    .register(registry);
+            FunctionCounter.builder("mockboard.webhooks.lane.rejected", lane.rejected, LongAdder::sum)
+                    .description("Tasks that found the lane full")
+                    .tag("lane", tag)
+                    .tag("policy", overflowPolicy.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("mockboard.webhooks.lane.capacity", this, e -> e.laneCapacity)
+                .register(registry);
+    }
+
+    private record Task(Runnable runnable, Object item, Consumer<List<Object>> batchHandler, long submittedNanos) {}
+
+    private final class Lane {
+
+        private final int index;
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Thread worker;
+        private volatile boolean waiting;
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Lane(int index) {
+            this.index = index;
+            this.worker = Thread.ofPlatform()
+                    .name("mockboard-board-lane-" + index)
+                    .daemon()
+                    .start(this::run);
+        }
+
+        private boolean offer(Task task) {
+            if (depth.incrementAndGet() > laneCapacity) {
+                depth.decrementAndGet();
+                return false;
+            }
+            queue.add(task);
+            if (waiting) {
+                LockSupport.unpark(worker);
+            }
+            return true;
+        }
+
+        // runs the tasks offered while the worker was exiting
+        private void drainAfterStop() {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (this) {
+                Task task;
+                while ((task = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    runTask(task);
+                }
+            }
+        }
+
+        private void run() {
+            while (true) {
+                var task = queue.poll();
+                if (task == null) {
+                    if (!running) return;
+                    // re-checked after publishing the flag, a producer seeing it unparks
+                    waiting = true;
+                    if (queue.isEmpty() && running) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    continue;
+                }
+
+                depth.decrementAndGet();
+                runTask(task);
+            }
+        }
+
+        private void runTask(Task task) {
+            if (task.batchHandler() != null) {
+                runBatch(task);
+                return;
+            }
+            try {
+                task.runnable().run();
+            } catch (Throwable e) {
+                log.warn("Lane {} task failed", index, e);
+            }
+            completed.increment();
+            latencyNanos.add(System.nanoTime() - task.submittedNanos());
+        }
+
+        private void runBatch(Task first) {
+            var items = new ArrayList<>();
+            items.add(first.item());
+            var submittedNanos = first.submittedNanos();
+            Task next;
+            // only the lane worker, or the stopping thread once it is gone, takes from the queue
+            while (items.size() < batchSize
+                    && (next = queue.peek()) != null
+                    && next.batchHandler() == first.batchHandler()) {
+                queue.poll();
+                depth.decrementAndGet();
+                items.add(next.item());
+                submittedNanos += next.submittedNanos();
+            }
+            try {
+                first.batchHandler().accept(items);
+            } catch (Throwable e) {
+                log.warn("Lane {} batch of {} failed", index, items.size(), e);
+            }
+            completed.add(items.size());
+            latencyNanos.add(System.nanoTime() * items.size() - submittedNanos);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.mockboard.common.executor;
+
+/**
+ * What happens to a task when the lane of its board is full. A task never runs outside its lane.
+ */
+public enum LaneOverflowPolicy {
+    // the task is dropped and counted
+    DROP,
+    // the submitting thread waits up to MBD_WEBHOOK_LANE_BLOCK_MS for space, then the task is dropped
+    BLOCK;
+
+    public static LaneOverflowPolicy parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DROP;
+        }
+    }
+}
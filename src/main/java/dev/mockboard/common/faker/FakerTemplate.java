@@ -0,0 +1,70 @@
+package dev.mockboard.common.faker;
+
+import java.util.List;
+
+/**
+ * Body compiled by {@link TemplateFakerProcessor#compile(String)}: literal chunks with faker values between them.
+ * Rendering is a single append loop, values are JSON-escaped straight into the output buffer (or come pre-escaped from the pool).
+ * Immutable, shared by all requests hitting the rule.
+ */
+public final class FakerTemplate {
+
+    // typical faker value length, only used to pre-size the buffer
+    private static final int VALUE_SIZE_HINT = 24;
+
+    private final String source;
+    // always values.length + 1 chunks, empty strings where two placeholders touch
+    private final String[] literals;
+    private final FakerValue[] values;
+    private final int sizeHint;
+
+    FakerTemplate(String source, List<String> literals, List<FakerValue> values) {
+        if (literals.size() != values.size() + 1) {
+            throw new IllegalArgumentException("Expected " + (values.size() + 1) + " literals, got " + literals.size());
+        }
+        this.source = source;
+        this.literals = literals.toArray(String[]::new);
+        this.values = values.toArray(FakerValue[]::new);
+
+        var literalLength = 0;
+        for (var literal : this.literals) {
+            literalLength += literal.length();
+        }
+        this.sizeHint = literalLength + this.values.length * VALUE_SIZE_HINT;
+    }
+
+    /**
+     * Template without placeholders.
+     */
+    public static FakerTemplate literal(String text) {
+        return new FakerTemplate(text, List.of(text), List.of());
+    }
+
+    public String render() {
+        if (values.length == 0) return literals[0];
+
+        var sb = new StringBuilder(sizeHint);
+        sb.append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            values[i].appendTo(sb);
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * No faker values, every render returns the same string.
+     */
+    public boolean isStatic() {
+        return values.length == 0;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.mockboard.common.faker;
+
+import tools.jackson.core.io.JsonStringEncoder;
+
+import java.util.function.Supplier;
+
+/**
+ * One placeholder of a {@link FakerTemplate}, appends a JSON-escaped value.
+ */
+@FunctionalInterface
+public interface FakerValue {
+
+    void appendTo(StringBuilder sb);
+
+    /**
+     * Generates and escapes a value on every call.
+     */
+    static FakerValue generated(Supplier<String> supplier) {
+        var encoder = JsonStringEncoder.getInstance();
+        return sb -> encoder.quoteAsString(supplier.get(), sb);
+    }
+}
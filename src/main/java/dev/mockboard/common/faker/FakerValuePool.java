@@ -0,0 +1,202 @@
+package dev.mockboard.common.faker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.io.JsonStringEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static dev.mockboard.Constants.FAKER_POOL_ENABLED;
+import static dev.mockboard.Constants.FAKER_POOL_REFILL_BATCH;
+import static dev.mockboard.Constants.FAKER_POOL_REFILL_INTERVAL_MS;
+import static dev.mockboard.Constants.FAKER_POOL_SIZE;
+
+/**
+ * Optional rings of pre-generated, pre-escaped values per dictionary key (MBD_FAKER_POOL_ENABLED).
+ * A low priority thread tops the rings up every refill interval, at most a batch per key, so request threads
+ * only take the next value. An empty ring falls back to generating on the request thread (a miss).
+ * Rings are created for keys used by compiled templates only, system.* values are cheaper than the pool.
+ */
+@Slf4j
+@Component
+public class FakerValuePool implements MeterBinder {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+    private static final String UNPOOLED_PREFIX = "system.";
+
+    private final boolean enabled;
+    private final int poolSize;
+    private final int refillBatch;
+    private final long refillIntervalNanos;
+    private final Map<String, ValueRing> rings = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+
+    private final Thread refiller;
+    private volatile boolean running;
+
+    public FakerValuePool() {
+        this(FAKER_POOL_ENABLED, FAKER_POOL_SIZE, FAKER_POOL_REFILL_BATCH, FAKER_POOL_REFILL_INTERVAL_MS);
+    }
+
+    public FakerValuePool(boolean enabled, int poolSize, int refillBatch, long refillIntervalMs) {
+        if (enabled && (poolSize <= 0 || refillBatch <= 0 || refillIntervalMs <= 0)) {
+            throw new IllegalArgumentException("Pool size, refill batch and interval must be positive");
+        }
+        this.enabled = enabled;
+        // power of two, so the slot index is a mask
+        this.poolSize = Integer.highestOneBit(poolSize) == poolSize ? poolSize : Integer.highestOneBit(poolSize) << 1;
+        this.refillBatch = refillBatch;
+        this.refillIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refillIntervalMs);
+        this.running = enabled;
+        this.refiller = enabled
+                ? Thread.ofPlatform().name("mockboard-faker-refill").daemon().priority(Thread.MIN_PRIORITY).start(this::run)
+                : null;
+    }
+
+    public FakerValue valueFor(String key, Supplier<String> supplier) {
+        if (!enabled || key.startsWith(UNPOOLED_PREFIX)) {
+            return FakerValue.generated(supplier);
+        }
+        return rings.computeIfAbsent(key, k -> new ValueRing(supplier, poolSize));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int pooledValues() {
+        var pooled = 0;
+        for (var ring : rings.values()) {
+            pooled += ring.size();
+        }
+        return pooled;
+    }
+
+    // synchronized, rings allow a single producer
+    synchronized void refill() {
+        for (var ring : rings.values()) {
+            var count = Math.min(refillBatch, poolSize - ring.size());
+            for (int i = 0; i < count; i++) {
+                if (!ring.offer(escape(ring.supplier.get()))) break;
+                generated.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refiller == null) return;
+        running = false;
+        LockSupport.unpark(refiller);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mockboard.faker.pool.values", hits, LongAdder::sum)
+                .description("Template values taken from the pool")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("mockboard.faker.pool.values", misses, LongAdder::sum)
+                .description("Template values generated on the request thread, the pool was empty")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("mockboard.faker.pool.generated", generated, LongAdder::sum)
+                .description("Template values generated by the refill thread")
+                .register(registry);
+        Gauge.builder("mockboard.faker.pool.size", this, FakerValuePool::pooledValues)
+                .description("Pre-generated values waiting in the pool")
+                .register(registry);
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, refillIntervalNanos);
+            if (!running) break;
+            try {
+                refill();
+            } catch (Exception e) {
+                log.warn("Faker pool refill failed", e);
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return new String(ENCODER.quoteAsCharArray(value));
+    }
+
+    /**
+     * Single producer (the refill thread), many consumers (request threads).
+     * A consumer reads the slot before claiming it with a CAS on head, the producer only reuses a slot
+     * once head has moved past it, so a successful claim always returns the value it read.
+     */
+    private final class ValueRing implements FakerValue {
+
+        private final Supplier<String> supplier;
+        private final AtomicReferenceArray<String> slots;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private volatile long tail = 0;
+
+        private ValueRing(Supplier<String> supplier, int capacity) {
+            this.supplier = supplier;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        @Override
+        public void appendTo(StringBuilder sb) {
+            var value = poll();
+            if (value != null) {
+                hits.increment();
+                sb.append(value);
+            } else {
+                misses.increment();
+                ENCODER.quoteAsString(supplier.get(), sb);
+            }
+        }
+
+        private String poll() {
+            while (true) {
+                var h = head.get();
+                if (h >= tail) return null;
+                var value = slots.get((int) (h & mask));
+                if (head.compareAndSet(h, h + 1)) return value;
+            }
+        }
+
+        private boolean offer(String value) {
+            var t = tail;
+            if (t - head.get() >= slots.length()) return false;
+            slots.set((int) (t & mask), value);
+            tail = t + 1;
+            return true;
+        }
+
+        private int size() {
+            return (int) Math.max(0, tail - head.get());
+        }
+    }
+}
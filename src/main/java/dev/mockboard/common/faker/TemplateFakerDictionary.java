@@ -6,14 +6,22 @@ import net.datafaker.Faker;
 
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
+import static dev.mockboard.Constants.FAKER_STRIPES;
+
+/**
+ * Template keys and their value suppliers. Faker values come from MBD_FAKER_STRIPES instances with their own Random,
+ * picked at random per value: with virtual threads every request is a new thread, a stripe per thread does not work.
+ */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class TemplateFakerDictionary {
 
-    private static final Faker FAKER = new Faker(Locale.US);
+    private static final Faker[] FAKERS = createFakers(FAKER_STRIPES);
     private static final Map<String, Supplier<String>> DICTIONARY = new ConcurrentHashMap<>();
 
     public static Map<String, Supplier<String>> getDictionary() {
@@ -22,33 +30,54 @@ public final class TemplateFakerDictionary {
 
     public static void initializeDictionary() {
         // personal data
-        DICTIONARY.put("user.fullName", () -> FAKER.name().fullName());
-        DICTIONARY.put("user.firstName", () -> FAKER.name().firstName());
-        DICTIONARY.put("user.lastName", () -> FAKER.name().lastName());
-        DICTIONARY.put("user.email", () -> FAKER.internet().emailAddress());
-        DICTIONARY.put("user.username", () -> FAKER.credentials().username());
-        DICTIONARY.put("user.phoneNumber", () -> FAKER.phoneNumber().cellPhone());
-        DICTIONARY.put("user.avatar", () -> FAKER.avatar().image());
+        DICTIONARY.put("user.fullName", () -> faker().name().fullName());
+        DICTIONARY.put("user.firstName", () -> faker().name().firstName());
+        DICTIONARY.put("user.lastName", () -> faker().name().lastName());
+        DICTIONARY.put("user.email", () -> faker().internet().emailAddress());
+        DICTIONARY.put("user.username", () -> faker().credentials().username());
+        DICTIONARY.put("user.phoneNumber", () -> faker().phoneNumber().cellPhone());
+        DICTIONARY.put("user.avatar", () -> faker().avatar().image());
 
         // address
-        DICTIONARY.put("address.full", () -> FAKER.address().fullAddress());
-        DICTIONARY.put("address.city", () -> FAKER.address().city());
-        DICTIONARY.put("address.street", () -> FAKER.address().streetAddress());
-        DICTIONARY.put("address.zipCode", () -> FAKER.address().zipCode());
-        DICTIONARY.put("address.country", () -> FAKER.address().country());
-        DICTIONARY.put("address.countryCode", () -> FAKER.address().countryCode());
+        DICTIONARY.put("address.full", () -> faker().address().fullAddress());
+        DICTIONARY.put("address.city", () -> faker().address().city());
+        DICTIONARY.put("address.street", () -> faker().address().streetAddress());
+        DICTIONARY.put("address.zipCode", () -> faker().address().zipCode());
+        DICTIONARY.put("address.country", () -> faker().address().country());
+        DICTIONARY.put("address.countryCode", () -> faker().address().countryCode());
 
         // content
-        DICTIONARY.put("content.char", () -> String.valueOf(FAKER.lorem().character()));
-        DICTIONARY.put("content.word", () -> FAKER.lorem().word());
-        DICTIONARY.put("content.sentence", () -> FAKER.lorem().sentence());
-        DICTIONARY.put("content.paragraph", () -> FAKER.lorem().paragraph());
+        DICTIONARY.put("content.char", () -> String.valueOf(faker().lorem().character()));
+        DICTIONARY.put("content.word", () -> faker().lorem().word());
+        DICTIONARY.put("content.sentence", () -> faker().lorem().sentence());
+        DICTIONARY.put("content.paragraph", () -> faker().lorem().paragraph());
 
         // system
-        DICTIONARY.put("system.int", () -> String.valueOf(FAKER.random().nextInt(0, 10000)));
-        DICTIONARY.put("system.long", () -> String.valueOf(FAKER.random().nextLong()));
-        DICTIONARY.put("system.double", () -> String.valueOf(FAKER.random().nextDouble()));
-        DICTIONARY.put("system.bool", () -> String.valueOf(FAKER.random().nextBoolean()));
-        DICTIONARY.put("system.uuid", () -> UUID.randomUUID().toString());
+        // Faker's nextInt(min, max) included max
+        DICTIONARY.put("system.int", () -> String.valueOf(ThreadLocalRandom.current().nextInt(0, 10_001)));
+        DICTIONARY.put("system.long", () -> String.valueOf(ThreadLocalRandom.current().nextLong()));
+        DICTIONARY.put("system.double", () -> String.valueOf(ThreadLocalRandom.current().nextDouble()));
+        DICTIONARY.put("system.bool", () -> String.valueOf(ThreadLocalRandom.current().nextBoolean()));
+        DICTIONARY.put("system.uuid", () -> randomUuid().toString());
+    }
+
+    private static Faker faker() {
+        return FAKERS.length == 1 ? FAKERS[0] : FAKERS[ThreadLocalRandom.current().nextInt(FAKERS.length)];
+    }
+
+    private static Faker[] createFakers(int stripes) {
+        var fakers = new Faker[Math.max(1, stripes)];
+        for (int i = 0; i < fakers.length; i++) {
+            fakers[i] = new Faker(Locale.US, new Random());
+        }
+        return fakers;
+    }
+
+    // version 4 UUID without UUID.randomUUID(), its SecureRandom is shared by all threads
+    private static UUID randomUuid() {
+        var random = ThreadLocalRandom.current();
+        var msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        var lsb = (random.nextLong() & ~(0xC000000000000000L)) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
     }
 }
@@ -1,46 +1,96 @@
 package dev.mockboard.common.faker;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.text.StringSubstitutor;
-import org.apache.commons.text.lookup.StringLookup;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import tools.jackson.core.io.JsonStringEncoder;
+
+import java.util.ArrayList;
 
 @Slf4j
 @Component
 public class TemplateFakerProcessor {
 
     private static final int MAX_KEY_LENGTH = 48;
+    private static final String PREFIX = "{{";
+    private static final String SUFFIX = "}}";
+    private static final String DEFAULT_DELIMITER = ":-";
+    private static final char ESCAPE = '$';
 
-    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
-    private final StringSubstitutor substitutor;
+    private final FakerValuePool valuePool;
 
     public TemplateFakerProcessor() {
+        this(new FakerValuePool(false, 1, 1, 1));
+    }
+
+    @Autowired
+    public TemplateFakerProcessor(FakerValuePool valuePool) {
         TemplateFakerDictionary.initializeDictionary();
+        this.valuePool = valuePool;
+    }
 
-        StringLookup fakerLookup = key -> {
-            if (key == null) return null;
+    /**
+     * Parses the body once into literal chunks and faker values, with the rules of the per-request
+     * StringSubstitutor it replaced: "$" before "{{" escapes a complete placeholder, ":-" gives a default
+     * for an invalid key, and an unresolved placeholder is kept as is and not searched for nested ones.
+     */
+    public FakerTemplate compile(String input) {
+        var source = input == null ? "" : input;
+        if (!source.contains(PREFIX)) {
+            return FakerTemplate.literal(source);
+        }
+
+        var literals = new ArrayList<String>();
+        var values = new ArrayList<FakerValue>();
+        var literal = new StringBuilder(source.length());
+        var pos = 0;
+        int start;
+        while ((start = source.indexOf(PREFIX, pos)) >= 0) {
+            var end = source.indexOf(SUFFIX, start + PREFIX.length());
+            if (end < 0) break;
+
+            literal.append(source, pos, start);
+            if (!literal.isEmpty() && literal.charAt(literal.length() - 1) == ESCAPE) {
+                literal.setLength(literal.length() - 1);
+                literal.append(PREFIX);
+                pos = start + PREFIX.length();
+                continue;
+            }
+
+            var expression = source.substring(start + PREFIX.length(), end);
+            pos = end + SUFFIX.length();
+            var key = expression;
+            String defaultValue = null;
+            for (int i = 0; i < expression.length(); i++) {
+                if (expression.startsWith(PREFIX, i)) break;
+                if (expression.startsWith(DEFAULT_DELIMITER, i)) {
+                    key = expression.substring(0, i);
+                    defaultValue = expression.substring(i + DEFAULT_DELIMITER.length());
+                    break;
+                }
+            }
 
             // should trim/remove whitespaces
             // {{   user.fullName    }} != {{user.fullName}}
             var trimmedKey = key.trim();
-            if (isInvalidKey(trimmedKey)) return null;
+            if (isInvalidKey(trimmedKey)) {
+                literal.append(defaultValue != null ? defaultValue : source.substring(start, pos));
+                continue;
+            }
 
             var supplier = TemplateFakerDictionary.getDictionary().get(trimmedKey);
-            if (supplier != null) {
-                var rawValue = supplier.get();
-                char[] escaped = ENCODER.quoteAsCharArray(rawValue);
-                return new String(escaped);
+            if (supplier == null) {
+                // not registered template
+                literal.append("[unknown: ").append(trimmedKey).append(']');
+                continue;
             }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            values.add(valuePool.valueFor(trimmedKey, supplier));
+        }
+        literal.append(source, pos, source.length());
+        literals.add(literal.toString());
 
-            // not registered template
-            return "[unknown: " + trimmedKey + "]";
-        };
-
-        this.substitutor = new StringSubstitutor(fakerLookup);
-        this.substitutor.setVariablePrefix("{{");
-        this.substitutor.setVariableSuffix("}}");
-        this.substitutor.setEnableSubstitutionInVariables(false);
+        return new FakerTemplate(source, literals, values);
     }
 
     private boolean isInvalidKey(String key) {
@@ -57,9 +107,4 @@ public class TemplateFakerProcessor {
         }
         return false;
     }
-
-    public String applyFaker(String input) {
-        if (input == null || input.isEmpty()) return input;
-        return substitutor.replace(input);
-    }
 }
@@ -0,0 +1,55 @@
+package dev.mockboard.common.routing;
+
+import dev.mockboard.common.domain.MockResponsePlan;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.faker.TemplateFakerProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MockResponsePlanCompiler {
+
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final TemplateFakerProcessor templateFakerProcessor;
+
+    public MockResponsePlan compile(MockRuleDto mockRule) {
+        var body = (mockRule.getBody() == null || mockRule.getBody().isEmpty()) ? "{}" : mockRule.getBody();
+        var template = templateFakerProcessor.compile(body);
+        // unknown and invalid placeholders render to constant text, so only faker values make the body dynamic
+        var staticBody = template.isStatic() ? template.render().getBytes(StandardCharsets.UTF_8) : null;
+        var delay = mockRule.getDelay() != null ? mockRule.getDelay() : 0;
+
+        return new MockResponsePlan(mockRule.getStatusCode(), parseHeaders(mockRule.getHeaders()), template, staticBody, delay);
+    }
+
+    private HttpHeaders parseHeaders(String rawHeaders) {
+        if (rawHeaders == null || rawHeaders.isEmpty()) {
+            return MockResponsePlan.jsonHeaders();
+        }
+
+        var headers = new HttpHeaders();
+        try {
+            objectMapper.readValue(rawHeaders, HEADERS_TYPE).forEach(headers::add);
+        } catch (Exception e) {
+            log.warn("Failed to parse headers, using default", e);
+            return MockResponsePlan.jsonHeaders();
+        }
+        // bodies are validated as JSON
+        if (!headers.containsHeader(HttpHeaders.CONTENT_TYPE)) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
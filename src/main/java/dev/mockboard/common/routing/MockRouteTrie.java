@@ -0,0 +1,198 @@
+package dev.mockboard.common.routing;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable per-board routing trie built from mock rules.
+ * Each node is one path segment: literal children, a "*" child and "glob" children
+ * for segments that mix text with wildcards ("user-*").
+ * Terminal nodes keep one rule per HTTP method.
+ * <p>
+ * Precedence is the same as the old regex scan: fewest wildcards first, then the longest path,
+ * then the rule that comes first in the build order (newest).
+ */
+public final class MockRouteTrie {
+
+    public static final MockRouteTrie EMPTY = new MockRouteTrie(new Node());
+
+    private static final char WILDCARD = Constants.WILDCARD.charAt(0);
+
+    private final Node root;
+
+    private MockRouteTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param mockRules rules in priority order, the first rule wins on equal wildcards and path length
+     */
+    public static MockRouteTrie build(List<MockRuleDto> mockRules) {
+        if (mockRules == null || mockRules.isEmpty()) return EMPTY;
+
+        var root = new Node();
+        for (int i = 0; i < mockRules.size(); i++) {
+            var mockRule = mockRules.get(i);
+            if (mockRule.getPath() == null || mockRule.getMethod() == null) continue;
+            if (mockRule.getPath().isEmpty() || mockRule.getPath().charAt(0) != '/') continue;
+
+            var node = root;
+            int wildcards = 0;
+            for (var segment : split(mockRule.getPath())) {
+                node = node.child(segment);
+                wildcards += countWildcards(segment);
+            }
+            var method = mockRule.getMethod().toUpperCase(Locale.ROOT);
+            node.routes().putIfAbsent(method, new Route(mockRule, wildcards, mockRule.getPath().length(), i));
+        }
+        return new MockRouteTrie(root);
+    }
+
+    /**
+     * @param path normalized request path, starting with "/"
+     * @return the best matching rule or null
+     */
+    public MockRuleDto match(String method, String path) {
+        if (method == null || path == null || path.isEmpty() || path.charAt(0) != '/') return null;
+        if (root.isLeafless()) return null;
+
+        var best = new Route[1];
+        match(root, path, 1, method.toUpperCase(Locale.ROOT), 0, best);
+        return best[0] != null ? best[0].mockRule() : null;
+    }
+
+    private static void match(Node node, String path, int from, String method, int wildcards, Route[] best) {
+        if (best[0] != null && wildcards > best[0].wildcards()) return;
+
+        if (from > path.length()) {
+            if (node.routes == null) return;
+            var route = node.routes.get(method);
+            if (route != null && route.isBetterThan(best[0])) {
+                best[0] = route;
+            }
+            return;
+        }
+
+        int end = path.indexOf('/', from);
+        if (end < 0) end = path.length();
+
+        if (node.literals != null) {
+            var next = node.literals.get(path.substring(from, end));
+            if (next != null) {
+                match(next, path, end + 1, method, wildcards, best);
+            }
+        }
+
+        // "*" matches one or more chars within a single segment, same as [^/]+
+        if (node.wildcard != null && end > from) {
+            match(node.wildcard, path, end + 1, method, wildcards + 1, best);
+        }
+
+        if (node.globs != null) {
+            for (var glob : node.globs) {
+                if (glob.matches(path, from, end)) {
+                    match(glob.node(), path, end + 1, method, wildcards + glob.wildcards(), best);
+                }
+            }
+        }
+    }
+
+    private static List<String> split(String path) {
+        var segments = new ArrayList<String>();
+        int from = 1;
+        while (true) {
+            int end = path.indexOf('/', from);
+            if (end < 0) {
+                segments.add(path.substring(from));
+                return segments;
+            }
+            segments.add(path.substring(from, end));
+            from = end + 1;
+        }
+    }
+
+    private static int countWildcards(String segment) {
+        int count = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            if (segment.charAt(i) == WILDCARD) count++;
+        }
+        return count;
+    }
+
+    private record Route(MockRuleDto mockRule, int wildcards, int pathLength, int order) {
+
+        boolean isBetterThan(Route other) {
+            if (other == null) return true;
+            if (wildcards != other.wildcards) return wildcards < other.wildcards;
+            if (pathLength != other.pathLength) return pathLength > other.pathLength;
+            return order < other.order;
+        }
+    }
+
+    private record Glob(String pattern, int wildcards, Node node) {
+
+        boolean matches(String path, int from, int end) {
+            return matches(path, from, end, 0);
+        }
+
+        private boolean matches(String path, int pos, int end, int patternPos) {
+            while (patternPos < pattern.length()) {
+                char c = pattern.charAt(patternPos);
+                if (c == WILDCARD) {
+                    // at least one char per wildcard
+                    for (int next = pos + 1; next <= end; next++) {
+                        if (matches(path, next, end, patternPos + 1)) return true;
+                    }
+                    return false;
+                }
+                if (pos >= end || path.charAt(pos) != c) return false;
+                pos++;
+                patternPos++;
+            }
+            return pos == end;
+        }
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private Node wildcard;
+        private List<Glob> globs;
+        private Map<String, Route> routes;
+
+        private Node child(String segment) {
+            if (Constants.WILDCARD.equals(segment)) {
+                if (wildcard == null) wildcard = new Node();
+                return wildcard;
+            }
+
+            int wildcards = countWildcards(segment);
+            if (wildcards > 0) {
+                if (globs == null) globs = new ArrayList<>();
+                for (var glob : globs) {
+                    if (glob.pattern().equals(segment)) return glob.node();
+                }
+                var glob = new Glob(segment, wildcards, new Node());
+                globs.add(glob);
+                return glob.node();
+            }
+
+            if (literals == null) literals = new HashMap<>();
+            return literals.computeIfAbsent(segment, k -> new Node());
+        }
+
+        private Map<String, Route> routes() {
+            if (routes == null) routes = new HashMap<>();
+            return routes;
+        }
+
+        private boolean isLeafless() {
+            return literals == null && wildcard == null && globs == null && routes == null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package dev.mockboard.common.timer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static dev.mockboard.Constants.DELAY_TIMER_TICK_MS;
+import static dev.mockboard.Constants.DELAY_TIMER_WHEEL_SIZE;
+
+/**
+ * Hashed wheel timer for delayed mock responses.
+ * A single worker thread advances the wheel every tick, a pending delay costs one bucket entry and not a parked thread.
+ * Tasks run on the worker thread, so they should only hand the work off (e.g. complete a DeferredResult).
+ * Tasks never fire early, at most one tick late.
+ */
+@Slf4j
+@Component
+public class HashedWheelTimer implements MeterBinder {
+
+    private final long tickNanos;
+    private final int mask;
+    // buckets are touched by the worker thread only
+    private final ArrayDeque<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick = 0;
+
+    public HashedWheelTimer() {
+        this(DELAY_TIMER_TICK_MS, DELAY_TIMER_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(long tickMs, int wheelSize) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        // power of two, so the bucket index is a mask
+        var size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = size - 1;
+        this.wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+
+        this.startTime = System.nanoTime();
+        this.worker = Thread.ofPlatform()
+                .name("mockboard-delay-timer")
+                .daemon()
+                .start(this::run);
+    }
+
+    // once the timer is stopped the task runs right away, on the calling thread
+    public Timeout schedule(Runnable task, long delayMs) {
+        var deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        var timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        newTimeouts.add(timeout);
+        if (!running) {
+            // stop() may have flushed the new timeouts before this one was added
+            timeout.expire();
+        }
+        return timeout;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    // delayed requests are answered before the server goes down
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        var flushed = 0;
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.expire()) flushed++;
+        }
+        for (var bucket : wheel) {
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.expire()) flushed++;
+            }
+        }
+        log.info("Delay timer stopped, {} pending delays flushed", flushed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mockboard.delay.pending", pending, AtomicInteger::get)
+                .description("Delayed mock responses waiting on the timer")
+                .register(registry);
+    }
+
+    private void run() {
+        while (running) {
+            waitForNextTick();
+            if (!running) break;
+
+            transferNewTimeouts();
+            expireBucket(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        var deadline = tickNanos * (tick + 1);
+        while (running) {
+            var sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) return;
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.isDone()) continue;
+
+            var calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // already late, goes to the current bucket
+            var ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Timeout> bucket) {
+        for (int i = bucket.size(); i > 0; i--) {
+            var timeout = bucket.poll();
+            if (timeout.isDone()) continue;
+
+            if (timeout.remainingRounds <= 0) {
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+            }
+        }
+    }
+
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) return false;
+            pending.decrementAndGet();
+            return true;
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+
+        private boolean expire() {
+            if (!done.compareAndSet(false, true)) return false;
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.warn("Delayed task failed", e);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package dev.mockboard.common.utils;
+
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.repository.model.Webhook;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Field encoding shared by the cache snapshot and the webhook event log.
+ * A webhook has the same layout as a {@link WebhookDto} and as a {@link Webhook}, so either can be read back as the other.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BinaryCodec {
+
+    public static void writeWebhook(DataOutputStream out, WebhookDto webhook) throws IOException {
+        writeWebhookText(out, webhook.getId(), webhook.getBoardId(), webhook.getMethod(), webhook.getPath(),
+                webhook.getFullUrl(), webhook.getQueryParams(), webhook.getHeaders(), webhook.getBody(), webhook.getContentType());
+        writeInteger(out, webhook.getStatusCode());
+        out.writeByte(webhook.getMatched() == null ? -1 : webhook.getMatched() ? 1 : 0);
+        writeInstant(out, webhook.getTimestamp());
+        out.writeBoolean(webhook.getProcessingTimeMs() != null);
+        if (webhook.getProcessingTimeMs() != null) out.writeLong(webhook.getProcessingTimeMs());
+    }
+
+    public static void writeWebhook(DataOutputStream out, Webhook webhook) throws IOException {
+        writeWebhookText(out, webhook.getId(), webhook.getBoardId(), webhook.getMethod(), webhook.getPath(),
+                webhook.getFullUrl(), webhook.getQueryParams(), webhook.getHeaders(), webhook.getBody(), webhook.getContentType());
+        writeInteger(out, webhook.getStatusCode());
+        out.writeByte(webhook.isMatched() ? 1 : 0);
+        writeInstant(out, webhook.getTimestamp());
+        out.writeBoolean(true);
+        out.writeLong(webhook.getProcessingTimeMs());
+    }
+
+    public static WebhookDto readWebhookDto(DataInputStream in) throws IOException {
+        var webhook = new WebhookDto();
+        webhook.setId(readString(in));
+        webhook.setBoardId(readString(in));
+        webhook.setMethod(readString(in));
+        webhook.setPath(readString(in));
+        webhook.setFullUrl(readString(in));
+        webhook.setQueryParams(readString(in));
+        webhook.setHeaders(readString(in));
+        webhook.setBody(readString(in));
+        webhook.setContentType(readString(in));
+        webhook.setStatusCode(readInteger(in));
+        var matched = in.readByte();
+        webhook.setMatched(matched < 0 ? null : matched == 1);
+        webhook.setTimestamp(readInstant(in));
+        webhook.setProcessingTimeMs(in.readBoolean() ? in.readLong() : null);
+        return webhook;
+    }
+
+    public static Webhook readWebhook(DataInputStream in) throws IOException {
+        var webhook = Webhook.builder()
+                .id(readString(in))
+                .boardId(readString(in))
+                .method(readString(in))
+                .path(readString(in))
+                .fullUrl(readString(in))
+                .queryParams(readString(in))
+                .headers(readString(in))
+                .body(readString(in))
+                .contentType(readString(in))
+                .statusCode(readInteger(in))
+                .matched(in.readByte() == 1)
+                .timestamp(readInstant(in))
+                .build();
+        if (in.readBoolean()) {
+            webhook.setProcessingTimeMs(in.readLong());
+        }
+        return webhook;
+    }
+
+    // length-prefixed UTF-8, writeUTF is limited to 64KB
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if (length < 0) return null;
+        var bytes = in.readNBytes(length);
+        if (bytes.length != length) throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    public static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    public static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) return;
+        out.writeLong(value.getEpochSecond());
+        out.writeInt(value.getNano());
+    }
+
+    public static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    private static void writeWebhookText(DataOutputStream out, String... values) throws IOException {
+        for (var value : values) {
+            writeString(out, value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package dev.mockboard.common.utils;
+
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rough retained size of cached objects, used as cache weights. Strings are counted as compact (Latin-1),
+ * fixed parts are rounded up, the point is to tell a board with large bodies from an empty one.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MemoryUtils {
+
+    // String header, fields and its byte[] header
+    private static final long STRING_OVERHEAD = 40;
+    private static final long WEBHOOK_OVERHEAD = 96;
+    // dto, route trie nodes and the response plan without the body
+    private static final long MOCK_RULE_OVERHEAD = 768;
+
+    public static long estimate(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+
+    public static long estimate(WebhookDto webhook) {
+        return WEBHOOK_OVERHEAD
+                + estimate(webhook.getId())
+                + estimate(webhook.getMethod())
+                + estimate(webhook.getPath())
+                + estimate(webhook.getFullUrl())
+                + estimate(webhook.getQueryParams())
+                + estimate(webhook.getHeaders())
+                + estimate(webhook.getBody())
+                + estimate(webhook.getContentType());
+    }
+
+    public static long estimate(MockRuleDto mockRule) {
+        var bodyLength = mockRule.getBody() != null ? mockRule.getBody().length() : 0;
+        return MOCK_RULE_OVERHEAD
+                + estimate(mockRule.getId())
+                + estimate(mockRule.getMethod())
+                + estimate(mockRule.getPath())
+                + estimate(mockRule.getHeaders())
+                + estimate(mockRule.getBody())
+                // compiled template literals or the pre-encoded static body
+                + bodyLength;
+    }
+}
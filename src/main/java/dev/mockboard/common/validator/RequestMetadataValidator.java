@@ -10,15 +10,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import tools.jackson.databind.ObjectMapper;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RequestMetadataValidator {
 
+    private static final byte[] EMPTY_BODY = new byte[0];
+
     private final ObjectMapper objectMapper;
+    // read buffers, one body is read in a single pass into a buffer borrowed from here
+    private final BlockingQueue<byte[]> bodyBuffers = new ArrayBlockingQueue<>(Constants.BODY_BUFFER_POOL_SIZE);
 
     public RequestMetadata validateAndGet(String boardId, HttpServletRequest request) {
         if (!Constants.VALID_HTTP_METHODS.contains(request.getMethod())) {
@@ -32,77 +37,92 @@ public class RequestMetadataValidator {
             throw new IllegalArgumentException("Allowed query string length exceeded");
         }
         var body = extractAndValidateBody(request);
-        if (!body.isBlank() && !isValidJson(body)) {
-            throw new IllegalArgumentException("Invalid JSON payload");
-        }
-        var headers = extractHeaders(request);
+        // captured raw, URL and headers JSON are built on the async webhook side
+        var headerNames = new String[Constants.MAX_WEBHOOK_HEADERS_SIZE];
+        var headerValues = new String[Constants.MAX_WEBHOOK_HEADERS_SIZE];
+        var headerCount = extractHeaders(request, headerNames, headerValues);
         return new RequestMetadata(
                 request.getMethod(),
                 request.getRequestURI(),
                 RequestUtils.extractMockPath(boardId, request),
-                request.getRequestURL().toString(),
+                request.getScheme(),
+                request.getServerName(),
+                request.getServerPort(),
                 request.getQueryString(),
-                serializeHeaders(headers),
+                Arrays.copyOf(headerNames, headerCount),
+                Arrays.copyOf(headerValues, headerCount),
                 body,
                 request.getContentType()
         );
     }
 
-    private Map<String, String> extractHeaders(HttpServletRequest request) {
-        var headers = new HashMap<String, String>();
+    private int extractHeaders(HttpServletRequest request, String[] headerNames, String[] headerValues) {
         var names = request.getHeaderNames();
         int count = 0;
-        while (names.hasMoreElements() && count < Constants.MAX_WEBHOOK_HEADERS_SIZE) {
+        while (names.hasMoreElements() && count < headerNames.length) {
             var name = names.nextElement();
             var value = request.getHeader(name);
             if (name.length() < Constants.MAX_HEADER_KEY_LENGTH &&
                     (value != null && value.length() <= Constants.MAX_HEADER_VALUE_LENGTH)) {
-                headers.put(name, value);
+                headerNames[count] = name;
+                headerValues[count] = value;
                 count++;
             }
         }
-        return headers;
+        return count;
     }
 
-    private String extractAndValidateBody(HttpServletRequest request) {
+    /**
+     * Raw body bytes, read once into a pooled buffer and checked with the streaming parser, no tree is built.
+     * The limit applies to bytes, same as the Content-Length check.
+     */
+    private byte[] extractAndValidateBody(HttpServletRequest request) {
         if (request.getContentLengthLong() > Constants.MAX_BODY_LENGTH) {
             throw new IllegalArgumentException("Payload too large");
         }
 
+        var buffer = acquireBuffer();
         try {
-            char[] buffer = new char[Constants.MAX_BODY_LENGTH + 1];
             int totalRead = 0;
-            try (var reader = request.getReader()) {
+            try (var input = request.getInputStream()) {
                 int read;
-                while ((read = reader.read(buffer, totalRead, buffer.length - totalRead)) != -1) {
+                while ((read = input.read(buffer, totalRead, buffer.length - totalRead)) != -1) {
                     totalRead += read;
                     if (totalRead > Constants.MAX_BODY_LENGTH) {
                         throw new IllegalArgumentException("Payload exceeds maximum size");
                     }
                 }
             }
-            return totalRead == 0 ? "" : new  String(buffer, 0, totalRead);
+            if (totalRead == 0) return EMPTY_BODY;
+            if (!isValidJson(buffer, totalRead)) {
+                throw new IllegalArgumentException("Invalid JSON payload");
+            }
+            return Arrays.copyOf(buffer, totalRead);
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalArgumentException("Read failure", e);
+        } finally {
+            bodyBuffers.offer(buffer);
         }
     }
 
-    private boolean isValidJson(String json) {
-        try {
-            objectMapper.readTree(json);
-            return true;
+    /**
+     * Single root value, blank bodies are accepted.
+     */
+    private boolean isValidJson(byte[] json, int length) {
+        try (var parser = objectMapper.createParser(json, 0, length)) {
+            if (parser.nextToken() == null) return true;
+            parser.skipChildren();
+            return parser.nextToken() == null;
         } catch (Exception e) {
             log.error("Provided invalid json", e);
             return false;
         }
     }
 
-    private String serializeHeaders(Map<String, String> headers) {
-        try {
-            return objectMapper.writeValueAsString(headers);
-        } catch (Exception e) {
-            log.error("Unable to serialize headers", e);
-            return "{}";
-        }
+    private byte[] acquireBuffer() {
+        var buffer = bodyBuffers.poll();
+        return buffer != null ? buffer : new byte[Constants.MAX_BODY_LENGTH + 1];
     }
 }
@@ -46,6 +46,12 @@ public class ExceptionHandlerAdvice {
         return new ResponseEntity<>(exceptionResponse, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    @ExceptionHandler({ServiceUnavailableException.class})
+    public ResponseEntity<ExceptionResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        var exceptionResponse = new ExceptionResponse(ex.getMessage(), LocalDateTime.now());
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler({IllegalArgumentException.class})
     public ResponseEntity<ExceptionResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         var exceptionResponse = new ExceptionResponse(ex.getMessage(), LocalDateTime.now());
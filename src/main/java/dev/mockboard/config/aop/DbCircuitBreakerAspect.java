@@ -0,0 +1,56 @@
+package dev.mockboard.config.aop;
+
+import dev.mockboard.common.db.DbCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts repositories and transactional methods behind the {@link DbCircuitBreaker}.
+ * Ordered before the transaction interceptor, an open breaker rejects before a connection is requested from the pool.
+ * Only the outermost guarded call of a thread is recorded, nested repository calls are part of it.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class DbCircuitBreakerAspect {
+
+    private static final ThreadLocal<Boolean> GUARDED = new ThreadLocal<>();
+
+    private final DbCircuitBreaker dbCircuitBreaker;
+
+    @Pointcut(
+            "execution(* org.springframework.data.repository.Repository+.*(..))" +
+                    " || within(dev.mockboard.repository..*)" +
+                    " || (within(dev.mockboard..*) && @annotation(org.springframework.transaction.annotation.Transactional))"
+    )
+    public void dbAccessPointcut() {
+        // noop
+    }
+
+    @Around("dbAccessPointcut()")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (GUARDED.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        dbCircuitBreaker.acquire();
+        GUARDED.set(Boolean.TRUE);
+        var started = System.nanoTime();
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            GUARDED.remove();
+            dbCircuitBreaker.record(System.nanoTime() - started, error);
+        }
+    }
+}
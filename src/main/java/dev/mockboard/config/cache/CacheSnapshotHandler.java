@@ -0,0 +1,42 @@
+package dev.mockboard.config.cache;
+
+import dev.mockboard.event.EventConsumer;
+import dev.mockboard.service.CacheSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops after the web server, so the snapshot holds every capture and matches what was written to the DB.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheSnapshotHandler implements SmartLifecycle {
+
+    private final EventConsumer eventConsumer;
+    private final CacheSnapshotService cacheSnapshotService;
+    private boolean isRunning = false;
+
+    @Override
+    public void start() {
+        this.isRunning = true;
+    }
+
+    @Override
+    public void stop() {
+        eventConsumer.flushAll();
+        cacheSnapshotService.writeSnapshot();
+        this.isRunning = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    @Override
+    public int getPhase() {
+        // web server stops at DEFAULT_PHASE - 2048
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
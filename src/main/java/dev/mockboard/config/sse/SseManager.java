@@ -1,53 +1,80 @@
 package dev.mockboard.config.sse;
 
 import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContext;
+import dev.mockboard.common.cache.BoardContextCache;
 import dev.mockboard.common.domain.dto.BoardDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Subscribers are kept in the {@link BoardContext} of the board. The context is not evicted while it has any
+ * (weight 0, the heartbeat refreshes its expiry), they are completed when the board is deleted.
+ * <p>
+ * An event is rendered once into a frame shared by all subscribers of the board, each {@link SseSubscriber}
+ * sends it from its own queue on a virtual thread. Event ids are a sequence, unique per run.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class SseManager {
+public class SseManager implements MeterBinder {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event()
+            .name(Constants.SSE_EMITTER_EVENT_PING)
+            .comment("heartbeat")
+            .build();
+
+    private final BoardContextCache boardContextCache;
+    private final ObjectMapper objectMapper;
 
-    private final Map<String, List<SseEmitter>> webhookEmitters = new ConcurrentHashMap<>();
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
 
     public SseEmitter subscribe(BoardDto boardDto) {
-        var emitter = new SseEmitter(Constants.SSE_EMITTER_TTL);
-        webhookEmitters.compute(boardDto.getId(), (key, emitters) -> {
-            var newList = (CollectionUtils.isEmpty(emitters))
-                    ? new CopyOnWriteArrayList<SseEmitter>()
-                    : emitters;
-
-            if (newList.size() >= Constants.MAX_SSE_EMITTERS_PER_BOARD) {
-                try {
-                    var oldest = newList.removeFirst();
-                    oldest.complete();
-                    log.debug("Emitters size exceeded, oldest removed");
-                } catch (Exception e) {
-                    // should be already dead
-                    log.debug(e.getMessage(), e);
-                }
+        var emitter = new SseSubscriber(Constants.SSE_EMITTER_TTL, Constants.SSE_SUBSCRIBER_QUEUE_CAPACITY, sendExecutor);
+        var context = boardContextCache.context(boardDto.getId());
+        var subscribers = context.subscribers();
+        synchronized (subscribers) {
+            if (subscribers.size() >= Constants.MAX_SSE_EMITTERS_PER_BOARD) {
+                var oldest = subscribers.removeFirst();
+                oldest.close();
+                log.debug("Emitters size exceeded, oldest removed");
             }
+            subscribers.add(emitter);
+        }
+        boardContextCache.reweigh(context);
+        if (boardContextCache.getIfPresent(boardDto.getId()) != context) {
+            // evicted before it was pinned, the client reconnects to the current context
+            subscribers.remove(emitter);
+            emitter.close();
+            return emitter;
+        }
 
-            newList.add(emitter);
-            return newList;
-        });
-
-        emitter.onCompletion(cleanup(boardDto.getId(), emitter));
-        emitter.onTimeout(cleanup(boardDto.getId(), emitter));
-        emitter.onError(e -> cleanup(boardDto.getId(), emitter).run());
+        Runnable cleanup = () -> {
+            if (subscribers.remove(emitter)) {
+                boardContextCache.reweigh(context);
+            }
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
 
         try {
             emitter.send(SseEmitter.event()
@@ -60,60 +87,34 @@ public class SseManager {
         return emitter;
     }
 
-    private Runnable cleanup(String boardId, SseEmitter emitter) {
-        return () -> webhookEmitters.computeIfPresent(boardId, (key, list) -> {
-            list.remove(emitter);
-            return list.isEmpty() ? null : list;
-        });
-    }
-
-    public void broadcast(String boardId, Object data) {
-        var emitters = webhookEmitters.get(boardId);
-        if (CollectionUtils.isEmpty(emitters)) {
+    public void broadcast(BoardContext context, Object data) {
+        var subscribers = context.subscribers();
+        if (subscribers.isEmpty()) {
             return;
         }
 
-        emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name(Constants.SSE_EMITTER_EVENT_WEBHOOK)
-                        .id(UUID.randomUUID().toString())
-                        .data(data, MediaType.APPLICATION_JSON)
-                );
-            } catch (Exception e) {
-                log.debug("An exception sending to disconnected emitter, {}", e.getMessage(), e);
-                emitter.completeWithError(e);
-            }
-        });
+        var frame = frame(Constants.SSE_EMITTER_EVENT_WEBHOOK, data);
+        subscribers.forEach(subscriber -> offer(context, subscriber, frame));
     }
 
     @Scheduled(fixedRate = Constants.SSE_EMITTER_HEARTBEAT_RATE)
     public void sendHeartbeat() {
-        if (webhookEmitters.isEmpty()) {
-            log.debug("No emitters found, nothing to send");
-            return;
+        var activeBoards = 0;
+        for (var context : boardContextCache.contexts()) {
+            if (context.subscribers().isEmpty()) continue;
+
+            // counts as an access, a board with an open dashboard does not expire
+            boardContextCache.get(context.boardId());
+            activeBoards++;
+            context.subscribers().forEach(subscriber -> offer(context, subscriber, HEARTBEAT));
         }
-
-        log.trace("Sending heartbeat to {} active boards", webhookEmitters.size());
-        webhookEmitters.forEach((key, emitters) -> emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name(Constants.SSE_EMITTER_EVENT_PING)
-                        .comment("heartbeat")
-                );
-            } catch (Exception e) {
-                log.debug("An exception sending to disconnected emitter, {}", e.getMessage(), e);
-                emitter.completeWithError(e);
-                // probably not needed, spring should handle it
-                // cleanup(key, emitter).run();
-            }
-        }));
+        log.trace("Sent heartbeat to {} active boards", activeBoards);
     }
 
     public void onShutdown() {
-        log.info("Shutting down SSE service: closing {} active boards", webhookEmitters.size());
+        log.info("Shutting down SSE service: closing active boards");
 
-        webhookEmitters.forEach((key, emitters) -> emitters.forEach(emitter -> {
+        boardContextCache.contexts().forEach(context -> context.subscribers().forEach(emitter -> {
             try {
                 emitter.send(SseEmitter.event()
                         .name(Constants.SSE_EMITTER_EVENT_SHUTDOWN)
@@ -124,6 +125,34 @@ public class SseManager {
                 emitter.completeWithError(e);
             }
         }));
-        webhookEmitters.clear();
+        boardContextCache.contexts().forEach(context -> context.subscribers().clear());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mockboard.sse.subscribers.dropped", dropped, LongAdder::sum)
+                .description("Subscribers dropped with a full send queue")
+                .register(registry);
+    }
+
+    /**
+     * The whole event as one chunk of bytes: name, id and the JSON data, serialized once.
+     */
+    Set<DataWithMediaType> frame(String name, Object data) {
+        var frame = "event:" + name + "\nid:" + eventIds.incrementAndGet()
+                + "\ndata:" + objectMapper.writeValueAsString(data) + "\n\n";
+        return Set.of(new DataWithMediaType(frame.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_PLAIN));
+    }
+
+    private void offer(BoardContext context, SseSubscriber subscriber, Set<DataWithMediaType> frame) {
+        if (subscriber.offer(frame)) return;
+
+        // a slow client, completed to reconnect instead of holding frames for it
+        if (context.subscribers().remove(subscriber)) {
+            boardContextCache.reweigh(context);
+            dropped.increment();
+            log.debug("Dropped SSE subscriber of board {} with {} frames pending", context.boardId(), subscriber.pending());
+        }
+        subscriber.close();
     }
 }
@@ -0,0 +1,101 @@
+package dev.mockboard.config.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Emitter of one dashboard with its own bounded queue of frames. The queue is drained on the send executor,
+ * by one task at a time, so frames go out in order and the publishing thread never writes to the socket.
+ * A subscriber a full queue behind is dropped, see {@link #offer(Set)}.
+ */
+@Slf4j
+public class SseSubscriber extends SseEmitter {
+
+    private final int capacity;
+    private final Executor sendExecutor;
+
+    private final Queue<Set<DataWithMediaType>> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public SseSubscriber(long timeout, int capacity, Executor sendExecutor) {
+        super(timeout);
+        this.capacity = capacity;
+        this.sendExecutor = sendExecutor;
+    }
+
+    /**
+     * Frames are shared between subscribers and never modified.
+     *
+     * @return false when the subscriber is closed or its queue is full, the caller drops it
+     */
+    public boolean offer(Set<DataWithMediaType> frame) {
+        if (closed) return false;
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return false;
+        }
+        frames.add(frame);
+        schedule();
+        return true;
+    }
+
+    public int pending() {
+        return depth.get();
+    }
+
+    /**
+     * Pending frames are discarded, a frame being sent still goes out.
+     */
+    public void close() {
+        closed = true;
+        frames.clear();
+        depth.set(0);
+        try {
+            complete();
+        } catch (Exception e) {
+            // should be already dead
+            log.debug(e.getMessage(), e);
+        }
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) return;
+
+        try {
+            sendExecutor.execute(this::drain);
+        } catch (Exception e) {
+            draining.set(false);
+            log.debug("Send executor rejected the drain, {}", e.getMessage(), e);
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!closed && (frame = frames.poll()) != null) {
+                depth.decrementAndGet();
+                send(frame);
+            }
+        } catch (Exception e) {
+            log.debug("An exception sending to disconnected emitter, {}", e.getMessage(), e);
+            closed = true;
+            frames.clear();
+            completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+        // a frame offered after the last poll but before the flag was cleared
+        if (!closed && !frames.isEmpty()) {
+            schedule();
+        }
+    }
+}
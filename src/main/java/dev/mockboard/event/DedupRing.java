@@ -0,0 +1,158 @@
+package dev.mockboard.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded multi-producer, single-consumer ring of pending events, deduplicated by entity id.
+ * An event for an entity that is still pending is merged into its slot in place and never needs a new one,
+ * so the ring holds at most one slot per entity and never more than its capacity.
+ * <p>
+ * Producers claim the next slot with a CAS on the tail. The consumer walks from the head, drains are serialized.
+ * When the ring is full a new entity is rejected, {@link OverflowPolicy#SAMPLE} starts rejecting earlier.
+ */
+public class DedupRing<T> implements EventBuffer<T> {
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    // SAMPLE: above this depth new entities are admitted with the share of the space still free
+    private final int sampleWatermark;
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final Map<String, Slot<T>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final LongAdder merged = new LongAdder();
+
+    private static final class Slot<T> {
+        private final String entityId;
+        private volatile DomainEvent<T> event;
+
+        private Slot(DomainEvent<T> event) {
+            this.entityId = event.getEntityId();
+            this.event = event;
+        }
+    }
+
+    public DedupRing(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleWatermark = capacity - capacity / 4;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return false when the event was rejected: the ring is full or the sample left it out
+     */
+    @Override
+    public boolean add(DomainEvent<T> event) {
+        if (event.getEntityId() == null) return true;
+
+        var admitted = new boolean[] {true};
+        pending.compute(event.getEntityId(), (id, slot) -> {
+            if (slot != null) {
+                // the consumer removes the slot from the map before reading it, the merge is never lost
+                slot.event = merge(slot.event, event);
+                merged.increment();
+                return slot;
+            }
+
+            var seq = claim();
+            if (seq < 0) {
+                admitted[0] = false;
+                return null;
+            }
+            var created = new Slot<>(event);
+            slots.set(index(seq), created);
+            return created;
+        });
+
+        return admitted[0];
+    }
+
+    /**
+     * Oldest first. Stops early at a slot claimed by a producer that has not written it yet.
+     */
+    @Override
+    public List<DomainEvent<T>> drain(int maxElements) {
+        if (size() == 0) return Collections.emptyList();
+
+        drainLock.lock();
+        try {
+            var batch = new ArrayList<DomainEvent<T>>(Math.min(maxElements, size()));
+            var seq = head;
+            var end = tail.get();
+            while (seq < end && batch.size() < maxElements) {
+                var index = index(seq);
+                var slot = slots.get(index);
+                if (slot == null) break;
+
+                pending.remove(slot.entityId, slot);
+                batch.add(slot.event);
+                slots.set(index, null);
+                seq++;
+            }
+            head = seq;
+            return batch;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long merged() {
+        return merged.sum();
+    }
+
+    private long claim() {
+        while (true) {
+            var current = tail.get();
+            var depth = current - head;
+            if (depth >= capacity || !sampled(depth)) return -1;
+            if (tail.compareAndSet(current, current + 1)) return current;
+        }
+    }
+
+    private boolean sampled(long depth) {
+        if (overflowPolicy != OverflowPolicy.SAMPLE || depth < sampleWatermark) return true;
+        var free = (double) (capacity - depth) / (capacity - sampleWatermark);
+        return ThreadLocalRandom.current().nextDouble() < free;
+    }
+
+    private int index(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    private static <T> DomainEvent<T> merge(DomainEvent<T> existing, DomainEvent<T> event) {
+        if (existing.getType() == EventType.CREATE && event.getType() == EventType.UPDATE) {
+            return new DomainEvent<>(
+                    EventType.CREATE,
+                    event.getEntityId(),
+                    event.getEntity(),
+                    event.getEntityClass()
+            );
+        }
+        return event;
+    }
+}
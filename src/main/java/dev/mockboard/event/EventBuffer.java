@@ -4,7 +4,10 @@ import java.util.List;
 
 public interface EventBuffer<T> {
 
-    void add(DomainEvent<T> event);
+    /**
+     * @return false when the buffer is full and the event was not taken
+     */
+    boolean add(DomainEvent<T> event);
 
     List<DomainEvent<T>> drain(int maxElements);
 
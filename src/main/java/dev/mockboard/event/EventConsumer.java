@@ -1,74 +1,272 @@
 package dev.mockboard.event;
 
 import dev.mockboard.Constants;
-import dev.mockboard.repository.WebhookRepository;
-import dev.mockboard.repository.model.PersistableEntity;
+import dev.mockboard.common.db.DbCircuitBreaker;
+import dev.mockboard.repository.WebhookBatchWriter;
 import dev.mockboard.repository.model.Webhook;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class EventConsumer {
+public class EventConsumer implements MeterBinder {
 
     private final EventQueue eventQueue;
-    private final WebhookRepository webhookRepository;
+    private final WebhookBatchWriter webhookBatchWriter;
+    private final WebhookEventLog webhookEventLog;
+    // batches drained while the DB is unavailable
+    private final Path spillPath;
+    private final WebhookEventLog spillLog;
 
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final LongAdder flushedEvents = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder spilledEvents = new LongAdder();
+    private volatile int lastBatchSize;
+    private volatile long lastFlushNanos = System.nanoTime();
+    // event log segments before it are written, deleted on the next flush
+    private long committableMark;
+
+    public EventConsumer(EventQueue eventQueue,
+                         WebhookBatchWriter webhookBatchWriter,
+                         WebhookEventLog webhookEventLog,
+                         @Value("${mockboard.data-path}") Path dataPath) {
+        this.eventQueue = eventQueue;
+        this.webhookBatchWriter = webhookBatchWriter;
+        this.webhookEventLog = webhookEventLog;
+        this.spillPath = dataPath.resolve("spill");
+        this.spillLog = new WebhookEventLog(spillPath, Constants.EVENT_WAL_SEGMENT_BYTES);
+    }
+
+    @PostConstruct
+    void init() {
+        eventQueue.onSpill(Webhook.class, this::flush);
+        try {
+            if (spillLog.open() > 0) {
+                log.info("Found webhooks spilled by the last run, written once the database is available");
+            }
+        } catch (IOException e) {
+            log.error("Unreadable spill directory {}", spillPath, e);
+        }
+        if (Constants.EVENT_WAL_ENABLED) {
+            replayEventLog();
+            eventQueue.onPublish(Webhook.class, webhookEventLog::append);
+        }
+    }
+
+    // on a full batch or after the dedup delay, the delay lets a capture and its updates merge into one write
     @Scheduled(
             initialDelay = 10_000,
-            fixedDelayString = "#{T(dev.mockboard.Constants).EVENT_DEDUP_PROCESS_DELAY}"
+            fixedDelayString = "#{T(dev.mockboard.Constants).EVENT_FLUSH_CHECK_INTERVAL_MS}"
     )
     public void processDedupBufferEvents() {
-        processWebhooks();
+        var due = System.nanoTime() - lastFlushNanos >= TimeUnit.MILLISECONDS.toNanos(Constants.EVENT_DEDUP_PROCESS_DELAY);
+        if (due || eventQueue.size(Webhook.class) >= Constants.EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS) {
+            flush();
+        }
     }
 
-    private void processWebhooks() {
-        var events = eventQueue.drain(Webhook.class, Constants.EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS);
-        if (CollectionUtils.isEmpty(events)) return;
+    // serialized, a capture is always inserted before a later update of it, also run by SPILL publishers
+    public synchronized void flush() {
+        flush(false);
+    }
 
+    // once nothing is published anymore (after the replay, on shutdown), commits the whole event log
+    public synchronized void flushAll() {
+        flush(true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("mockboard.events.flush", this, c -> c.batches.sum(), c -> c.batchNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Batches written to the DB and the time spent writing them")
+                .tag("entity", "webhook")
+                .register(registry);
+        FunctionCounter.builder("mockboard.events.flushed", flushedEvents, LongAdder::sum)
+                .description("Events written to the DB")
+                .tag("entity", "webhook")
+                .register(registry);
+        FunctionCounter.builder("mockboard.events.flush.failed", failedBatches, LongAdder::sum)
+                .description("Batches that failed to be written")
+                .tag("entity", "webhook")
+                .register(registry);
+        FunctionCounter.builder("mockboard.events.disk.spilled", spilledEvents, LongAdder::sum)
+                .description("Events spilled to disk while the database was unavailable")
+                .tag("entity", "webhook")
+                .register(registry);
+        Gauge.builder("mockboard.events.flush.size", this, c -> c.lastBatchSize)
+                .description("Events in the last written batch")
+                .tag("entity", "webhook")
+                .register(registry);
+    }
+
+    private void flush(boolean quiescent) {
+        lastFlushNanos = System.nanoTime();
+        var mark = webhookEventLog.mark();
+        var failures = failedBatches.sum();
+        write(readSpilled(), drainPending());
+        // segments of a failed batch stay for a restart before the next successful flush
+        if (failedBatches.sum() > failures) return;
+
+        // an event logged before the mark can still sit behind a ring slot claimed but not written by a producer,
+        // it is drained by the next flush, its segment deleted then
+        webhookEventLog.commit(quiescent ? mark : committableMark);
+        committableMark = mark;
+    }
+
+    private void replayEventLog() {
+        List<DomainEvent<Webhook>> events;
         try {
-            var groupedEvents = groupByType(events);
-            if (groupedEvents.containsKey(EventType.CREATE)) {
-                var domainEvents = groupedEvents.get(EventType.CREATE);
-                var list = getEntities(domainEvents);
-                webhookRepository.saveAll(list);
-                log.info("Inserted {} webhooks", list.size());
-            }
+            events = webhookEventLog.replay();
+        } catch (IOException e) {
+            log.error("Unreadable event log, pending webhooks of the last run are not replayed", e);
+            return;
+        }
+        if (events.isEmpty()) return;
 
-            if (groupedEvents.containsKey(EventType.UPDATE)) {
-                var domainEvents = groupedEvents.get(EventType.UPDATE);
-                var list = getEntities(domainEvents);
-                list.forEach(PersistableEntity::markNotNew);
-                webhookRepository.saveAll(list);
-                log.info("Updated {} webhooks", list.size());
+        for (var event : events) {
+            eventQueue.publish(event);
+            if (eventQueue.size(Webhook.class) >= Constants.EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS) {
+                write(List.of(), drainPending());
             }
+        }
+        flushAll();
+        log.info("Replayed {} webhook events from the event log", events.size());
+    }
+
+    private List<List<DomainEvent<Webhook>>> drainPending() {
+        var pending = new ArrayList<List<DomainEvent<Webhook>>>();
+        List<DomainEvent<Webhook>> events;
+        do {
+            events = eventQueue.drain(Webhook.class, Constants.EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS);
+            if (CollectionUtils.isEmpty(events)) break;
+            pending.add(events);
+            // full batch drained, more may be pending
+        } while (events.size() >= Constants.EVENT_CONSUMER_DRAIN_WEBHOOK_ELEMS);
+        return pending;
+    }
+
+    // one transaction, spilled first; with the DB up a failure is retried per segment and batch
+    private void write(List<SpilledSegment> spilled, List<List<DomainEvent<Webhook>>> pending) {
+        if (spilled.isEmpty() && pending.isEmpty()) return;
+
+        var started = System.nanoTime();
+        var events = new ArrayList<DomainEvent<Webhook>>();
+        spilled.forEach(segment -> events.addAll(segment.events()));
+        pending.forEach(events::addAll);
 
-            if (groupedEvents.containsKey(EventType.DELETE)) {
-                log.warn("Webhook DELETE should not be implemented");
+        try {
+            merge(events);
+            flushedEvents.add(events.size());
+            if (!spilled.isEmpty()) {
+                spillLog.commit(spilled.getLast().seq() + 1);
             }
         } catch (Exception e) {
-            log.error("Failed to process webhook batch", e);
+            if (DbCircuitBreaker.isUnavailable(e)) {
+                // spilled segments stay for the next flush
+                pending.forEach(this::spill);
+            } else {
+                log.warn("Failed to write {} webhook events at once, retrying per batch", events.size(), e);
+                writeSeparately(spilled, pending);
+            }
         }
+
+        batches.increment();
+        batchNanos.add(System.nanoTime() - started);
+        lastBatchSize = events.size();
     }
 
-    private <T>Map<EventType, List<DomainEvent<T>>> groupByType(List<DomainEvent<T>> events) {
-        return events.stream()
-                .collect(Collectors.groupingBy(DomainEvent::getType));
+    private void writeSeparately(List<SpilledSegment> spilled, List<List<DomainEvent<Webhook>>> pending) {
+        for (var segment : spilled) {
+            try {
+                merge(segment.events());
+                flushedEvents.add(segment.events().size());
+            } catch (Exception e) {
+                if (DbCircuitBreaker.isUnavailable(e)) {
+                    // this and later segments stay, pending batches go after them
+                    pending.forEach(this::spill);
+                    return;
+                }
+                failedBatches.increment();
+                log.error("Failed to write spilled segment {}, dropped", segment.seq(), e);
+            }
+            spillLog.commit(segment.seq() + 1);
+        }
+
+        for (var batch : pending) {
+            try {
+                merge(batch);
+                flushedEvents.add(batch.size());
+            } catch (Exception e) {
+                if (DbCircuitBreaker.isUnavailable(e)) {
+                    spill(batch);
+                } else {
+                    failedBatches.increment();
+                    log.error("Failed to process webhook batch", e);
+                }
+            }
+        }
     }
 
-    private <T>List<T> getEntities(List<DomainEvent<T>> events) {
-        return events.stream()
-                .map(DomainEvent::getEntity)
-                .filter(Objects::nonNull)
-                .toList();
+    private void merge(List<DomainEvent<Webhook>> events) {
+        // inserts and updates are one MERGE, the ring holds a single event per webhook
+        var list = new ArrayList<Webhook>(events.size());
+        var deletes = false;
+        for (var event : events) {
+            if (event.getType() == EventType.DELETE) {
+                deletes = true;
+            } else if (event.getEntity() != null) {
+                list.add(event.getEntity());
+            }
+        }
+        if (!list.isEmpty()) {
+            webhookBatchWriter.merge(list);
+            log.info("Written {} webhooks", list.size());
+        }
+
+        if (deletes) {
+            log.warn("Webhook DELETE should not be implemented");
+        }
+    }
+
+    private void spill(List<DomainEvent<Webhook>> events) {
+        events.forEach(spillLog::append);
+        // closes and forces the segment
+        spillLog.mark();
+        spilledEvents.add(events.size());
+        log.warn("Database unavailable, spilled {} webhook events to {}", events.size(), spillPath);
     }
+
+    // an unreadable segment is kept as empty, deleted with the others once they are written
+    private List<SpilledSegment> readSpilled() {
+        var segments = new ArrayList<SpilledSegment>();
+        for (var seq : spillLog.segmentsBefore(spillLog.mark())) {
+            try {
+                segments.add(new SpilledSegment(seq, spillLog.read(seq)));
+            } catch (IOException e) {
+                log.error("Unreadable spill segment {}, dropped", seq, e);
+                segments.add(new SpilledSegment(seq, List.of()));
+            }
+        }
+        return segments;
+    }
+
+    private record SpilledSegment(long seq, List<DomainEvent<Webhook>> events) {}
 }
@@ -1,6 +1,11 @@
 package dev.mockboard.event;
 
+import dev.mockboard.Constants;
 import dev.mockboard.repository.model.Webhook;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -8,33 +13,127 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+/**
+ * Pending writes per entity type, each in a bounded {@link DedupRing}.
+ * A full ring applies the {@link OverflowPolicy} (MBD_EVENT_RING_OVERFLOW_POLICY).
+ */
 @Slf4j
 @Component
-public class EventQueue {
+public class EventQueue implements MeterBinder {
 
-    private final Map<Class<?>, EventBuffer<?>> buffers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DedupRing<?>> buffers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Runnable> spillHandlers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Consumer<DomainEvent<?>>> publishListeners = new ConcurrentHashMap<>();
+    private final OverflowPolicy overflowPolicy;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
 
     public EventQueue() {
+        this(Constants.EVENT_RING_CAPACITY, OverflowPolicy.parse(Constants.EVENT_RING_OVERFLOW_POLICY));
+    }
+
+    public EventQueue(int capacity, OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
         // webhooks should handle duplications
-        buffers.put(Webhook.class, new DedupBuffer<>());
-        log.info("Initialized event queue with {} buffers", buffers.size());
+        buffers.put(Webhook.class, new DedupRing<>(capacity, overflowPolicy));
+        log.info("Initialized event queue with {} buffers of {} events, overflow policy {}",
+                buffers.size(), capacity, overflowPolicy);
     }
 
+    /**
+     * Writer of the pending events of a type, run by the publishing thread under {@link OverflowPolicy#SPILL}.
+     */
+    public <T> void onSpill(Class<T> clazz, Runnable spillHandler) {
+        spillHandlers.put(clazz, spillHandler);
+    }
+
+    /**
+     * Called with every event the ring took, once it is in the ring.
+     */
     @SuppressWarnings("unchecked")
+    public <T> void onPublish(Class<T> clazz, Consumer<DomainEvent<T>> publishListener) {
+        publishListeners.put(clazz, event -> publishListener.accept((DomainEvent<T>) event));
+    }
+
     public <T> void publish(DomainEvent<T> event) {
-        var buffer = (EventBuffer<T>) buffers.get(event.getEntityClass());
-        if (buffer != null) {
-            buffer.add(event);
-        } else log.error("unknown event type: {}", event.getType());
+        var buffer = buffer(event.getEntityClass());
+        if (buffer == null) {
+            log.error("unknown event type: {}", event.getType());
+            return;
+        }
+        if (buffer.add(event)) {
+            published(event);
+            return;
+        }
+
+        var spillHandler = spillHandlers.get(event.getEntityClass());
+        if (overflowPolicy == OverflowPolicy.SPILL && spillHandler != null) {
+            spillHandler.run();
+            if (buffer.add(event)) {
+                spilled.increment();
+                published(event);
+                return;
+            }
+        }
+        dropped.increment();
+        log.debug("Event buffer full, dropped {} {}", event.getType(), event.getEntityId());
     }
 
-    @SuppressWarnings("unchecked")
     public <T> List<DomainEvent<T>> drain(Class<T> clazz, int maxElements) {
-        var buffer = (EventBuffer<T>) buffers.get(clazz);
+        var buffer = buffer(clazz);
         if (buffer != null) {
             return buffer.drain(maxElements);
         }
         return Collections.emptyList();
     }
+
+    public int size(Class<?> clazz) {
+        var buffer = buffers.get(clazz);
+        return buffer != null ? buffer.size() : 0;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        buffers.forEach((clazz, buffer) -> {
+            var entity = clazz.getSimpleName().toLowerCase();
+            Gauge.builder("mockboard.events.pending", buffer, DedupRing::size)
+                    .description("Events waiting to be written")
+                    .tag("entity", entity)
+                    .register(registry);
+            Gauge.builder("mockboard.events.capacity", buffer, DedupRing::capacity)
+                    .tag("entity", entity)
+                    .register(registry);
+            FunctionCounter.builder("mockboard.events.merged", buffer, DedupRing::merged)
+                    .description("Events merged into a pending event of the same entity")
+                    .tag("entity", entity)
+                    .register(registry);
+        });
+        FunctionCounter.builder("mockboard.events.dropped", dropped, LongAdder::sum)
+                .description("Events dropped by the overflow policy")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(registry);
+        FunctionCounter.builder("mockboard.events.spilled", spilled, LongAdder::sum)
+                .description("Events taken after the publishing thread wrote the pending ones")
+                .register(registry);
+    }
+
+    private void published(DomainEvent<?> event) {
+        var publishListener = publishListeners.get(event.getEntityClass());
+        if (publishListener != null) {
+            publishListener.accept(event);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> DedupRing<T> buffer(Class<T> clazz) {
+        return (DedupRing<T>) buffers.get(clazz);
+    }
 }
@@ -0,0 +1,21 @@
+package dev.mockboard.event;
+
+/**
+ * What happens to an event for a new entity when its {@link DedupRing} is full.
+ */
+public enum OverflowPolicy {
+    // the event is dropped and counted
+    DROP,
+    // new entities are admitted with the share of the space still free once the ring is 3/4 full, then dropped
+    SAMPLE,
+    // the publishing thread writes the pending events itself and retries, dropped only if it is full again
+    SPILL;
+
+    public static OverflowPolicy parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DROP;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package dev.mockboard.event;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.utils.BinaryCodec;
+import dev.mockboard.repository.model.Webhook;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import static dev.mockboard.common.utils.BinaryCodec.readString;
+import static dev.mockboard.common.utils.BinaryCodec.writeString;
+
+/**
+ * Append-only write-ahead log of the published webhook events, in memory-mapped segment files.
+ * A record is {length, CRC32C, payload}, a segment ends at the first zero length or a record that fails its checksum,
+ * a write torn by a crash is dropped with everything after it.
+ * <p>
+ * Mapped pages survive a JVM crash once written, {@link #sync()} forces them to disk for an OS crash or power loss.
+ * {@link #mark()} starts a new segment, {@link #commit(long)} deletes the segments before a mark
+ * once their events are written to the DB. Whatever is left is replayed on the next start.
+ */
+@Slf4j
+@Component
+public class WebhookEventLog implements MeterBinder {
+
+    private static final String SEGMENT_PREFIX = "webhooks-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final Path dir;
+    private final int segmentBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentSkipListSet<Long> segments = new ConcurrentSkipListSet<>();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(1024);
+    private final CRC32C crc = new CRC32C();
+    private long segmentSeq;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private boolean dirty;
+
+    private final LongAdder appendedBytes = new LongAdder();
+    private volatile int replayed;
+
+    @Autowired
+    public WebhookEventLog(@Value("${mockboard.data-path}") Path dataPath) {
+        this(dataPath.resolve("wal"), Constants.EVENT_WAL_SEGMENT_BYTES);
+    }
+
+    public WebhookEventLog(Path dir, int segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    // picks up the segments on disk, new events go to a new one
+    public int open() throws IOException {
+        lock.lock();
+        try {
+            if (!Files.isDirectory(dir)) return 0;
+
+            try (var files = Files.list(dir)) {
+                files.map(WebhookEventLog::segmentSeq)
+                        .filter(seq -> seq >= 0)
+                        .forEach(segments::add);
+            }
+            if (!segments.isEmpty()) {
+                segmentSeq = Math.max(segmentSeq, segments.last() + 1);
+            }
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // oldest first, the segments stay until committed
+    public List<DomainEvent<Webhook>> replay() throws IOException {
+        open();
+        var events = new ArrayList<DomainEvent<Webhook>>();
+        for (var seq : segmentsBefore(Long.MAX_VALUE)) {
+            events.addAll(read(seq));
+        }
+        replayed = events.size();
+        return events;
+    }
+
+    public List<Long> segmentsBefore(long mark) {
+        return List.copyOf(segments.headSet(mark));
+    }
+
+    public List<DomainEvent<Webhook>> read(long seq) throws IOException {
+        var events = new ArrayList<DomainEvent<Webhook>>();
+        readSegment(segmentPath(seq), events);
+        return events;
+    }
+
+    public void append(DomainEvent<Webhook> event) {
+        lock.lock();
+        try {
+            var record = encode(event);
+            if (mapped == null || mapped.remaining() < record.length) {
+                roll(record.length);
+            }
+            mapped.put(record);
+            dirty = true;
+            appendedBytes.add(record.length);
+        } catch (IOException e) {
+            log.error("Failed to append {} {} to the event log", event.getType(), event.getEntityId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // every event appended so far is in a segment before the returned mark
+    public long mark() {
+        FileChannel closing = null;
+        MappedByteBuffer forcing = null;
+        long mark;
+        lock.lock();
+        try {
+            if (mapped != null && mapped.position() > 0) {
+                closing = channel;
+                forcing = dirty ? mapped : null;
+                mapped = null;
+                channel = null;
+                dirty = false;
+                segmentSeq++;
+            }
+            mark = segmentSeq;
+        } finally {
+            lock.unlock();
+        }
+        release(closing, forcing);
+        return mark;
+    }
+
+    public void commit(long mark) {
+        for (var seq : segments.headSet(mark)) {
+            try {
+                Files.deleteIfExists(segmentPath(seq));
+                segments.remove(seq);
+            } catch (IOException e) {
+                log.warn("Failed to delete event log segment {}", seq, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{T(dev.mockboard.Constants).EVENT_WAL_SYNC_INTERVAL_MS}")
+    public void sync() {
+        MappedByteBuffer forcing;
+        lock.lock();
+        try {
+            if (!dirty) return;
+            forcing = mapped;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        // outside the lock, appends go on during the force and are picked up by the next sync
+        try {
+            forcing.force();
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to sync event log segment", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int segments() {
+        return segments.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mockboard.events.wal.segments", segments, ConcurrentSkipListSet::size)
+                .description("Event log segments not committed yet")
+                .register(registry);
+        FunctionCounter.builder("mockboard.events.wal.appended", appendedBytes, LongAdder::sum)
+                .description("Bytes appended to the event log")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("mockboard.events.wal.replayed", this, l -> l.replayed)
+                .description("Events replayed from the event log on start")
+                .register(registry);
+    }
+
+    private void roll(int recordBytes) throws IOException {
+        if (mapped != null) {
+            closeSegment();
+            segmentSeq++;
+        }
+        Files.createDirectories(dir);
+        // a record bigger than a segment gets a segment of its own
+        var size = Math.max(segmentBytes, recordBytes);
+        channel = FileChannel.open(segmentPath(segmentSeq),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segments.add(segmentSeq);
+    }
+
+    private void closeSegment() {
+        if (mapped == null) return;
+
+        release(channel, dirty ? mapped : null);
+        dirty = false;
+        mapped = null;
+        channel = null;
+    }
+
+    private static void release(FileChannel channel, MappedByteBuffer forcing) {
+        if (channel == null) return;
+
+        try {
+            if (forcing != null) {
+                forcing.force();
+            }
+            channel.close();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to close event log segment", e);
+        }
+    }
+
+    private byte[] encode(DomainEvent<Webhook> event) throws IOException {
+        scratch.reset();
+        var out = new DataOutputStream(scratch);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeByte(event.getType().ordinal());
+        writeString(out, event.getEntityId());
+        var webhook = event.getEntity();
+        out.writeBoolean(webhook != null);
+        if (webhook != null) {
+            BinaryCodec.writeWebhook(out, webhook);
+        }
+
+        var record = scratch.toByteArray();
+        var payloadLength = record.length - HEADER_BYTES;
+        crc.reset();
+        crc.update(record, HEADER_BYTES, payloadLength);
+        writeInt(record, 0, payloadLength);
+        writeInt(record, Integer.BYTES, (int) crc.getValue());
+        return record;
+    }
+
+    private static void readSegment(Path path, List<DomainEvent<Webhook>> events) throws IOException {
+        try (var segment = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+            var crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                var length = buffer.getInt();
+                var checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) break;
+
+                var payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Torn record in event log segment {}, skipped the rest", path);
+                    break;
+                }
+                events.add(decode(payload));
+            }
+        }
+    }
+
+    private static DomainEvent<Webhook> decode(byte[] payload) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(payload));
+        var type = EventType.values()[in.readByte()];
+        var entityId = readString(in);
+        var webhook = in.readBoolean() ? BinaryCodec.readWebhook(in) : null;
+        return new DomainEvent<>(type, entityId, webhook, Webhook.class);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(SEGMENT_PREFIX + String.format("%020d", seq) + SEGMENT_SUFFIX);
+    }
+
+    private static long segmentSeq(Path path) {
+        var name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -5,12 +5,21 @@ import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface BoardRepository extends ListCrudRepository<Board, String> {
 
     Optional<Board> findByIdAndDeletedFalse(String id);
 
+    boolean existsByIdAndDeletedFalse(String id);
+
+    @Query("SELECT id FROM boards WHERE deleted = false")
+    List<String> findActiveBoardIds();
+
+    @Query("SELECT * FROM boards WHERE deleted = false ORDER BY created_at DESC LIMIT :limit")
+    List<Board> findRecentActiveBoards(int limit);
+
     @Modifying
     @Query("UPDATE boards SET deleted = true WHERE id = :boardId")
     void markDeleted(String boardId);
@@ -5,12 +5,17 @@ import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MockRuleRepository extends ListCrudRepository<MockRule, String> {
 
     List<MockRule> findByBoardIdAndDeletedFalseOrderByTimestampDesc(String boardId);
 
+    @Query("SELECT * FROM mock_rules WHERE deleted = false AND board_id IN (:boardIds)")
+    Stream<MockRule> streamActiveByBoardIds(Collection<String> boardIds);
+
     @Modifying
     @Query("UPDATE mock_rules SET deleted = true WHERE id = :mockRuleId")
     void markDeleted(String mockRuleId);
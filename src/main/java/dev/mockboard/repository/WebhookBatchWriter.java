@@ -0,0 +1,55 @@
+package dev.mockboard.repository;
+
+import dev.mockboard.Constants;
+import dev.mockboard.repository.model.Webhook;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+
+/**
+ * Webhook rows written with JDBC batches instead of one statement per entity.
+ * A single MERGE covers new and recycled captures, chunks of MBD_EVENT_BATCH_WRITE_SIZE rows
+ * go through one prepared statement, in one transaction per call.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WebhookBatchWriter {
+
+    private static final String MERGE_SQL = """
+            MERGE INTO webhooks (id, board_id, method, path, full_url, query_params, headers, body, content_type,
+                                 status_code, matched, received_at, processing_time_ms)
+            KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public int merge(Collection<Webhook> webhooks) {
+        if (webhooks.isEmpty()) return 0;
+
+        jdbcTemplate.batchUpdate(MERGE_SQL, webhooks, Constants.EVENT_BATCH_WRITE_SIZE, (ps, webhook) -> {
+            ps.setString(1, webhook.getId());
+            ps.setString(2, webhook.getBoardId());
+            ps.setString(3, webhook.getMethod());
+            ps.setString(4, webhook.getPath());
+            ps.setString(5, webhook.getFullUrl());
+            ps.setString(6, webhook.getQueryParams());
+            ps.setString(7, webhook.getHeaders());
+            ps.setString(8, webhook.getBody());
+            ps.setString(9, webhook.getContentType());
+            if (webhook.getStatusCode() != null) {
+                ps.setInt(10, webhook.getStatusCode());
+            } else {
+                ps.setNull(10, Types.INTEGER);
+            }
+            ps.setBoolean(11, webhook.isMatched());
+            ps.setTimestamp(12, webhook.getTimestamp() != null ? Timestamp.from(webhook.getTimestamp()) : null);
+            ps.setLong(13, webhook.getProcessingTimeMs());
+        });
+        return webhooks.size();
+    }
+}
@@ -1,11 +1,17 @@
 package dev.mockboard.repository;
 
 import dev.mockboard.repository.model.Webhook;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface WebhookRepository extends ListCrudRepository<Webhook, String> {
 
     List<Webhook> findByBoardIdOrderByTimestampDesc(String boardId);
+
+    @Query("SELECT * FROM webhooks WHERE board_id IN (:boardIds)")
+    Stream<Webhook> streamByBoardIds(Collection<String> boardIds);
 }
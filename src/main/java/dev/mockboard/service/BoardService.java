@@ -2,8 +2,9 @@ package dev.mockboard.service;
 
 import dev.mockboard.Constants;
 import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardIdFilter;
 import dev.mockboard.common.cache.MockRuleCache;
-import dev.mockboard.common.cache.WebhookCache;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.exception.ForbiddenException;
 import dev.mockboard.common.exception.NotFoundException;
@@ -14,8 +15,12 @@ import dev.mockboard.repository.model.Board;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 
@@ -30,8 +35,15 @@ public class BoardService {
     private final BoardRepository boardRepository;
 
     private final BoardCache boardCache;
+    private final BoardIdFilter boardIdFilter;
     private final MockRuleCache mockRuleCache;
-    private final WebhookCache webhookCache;
+    private final BoardContextCache boardContextCache;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationStartedEvent.class)
+    public void initBoardIdFilter() {
+        boardIdFilter.init(boardRepository.findActiveBoardIds());
+    }
 
     @Transactional
     public BoardDto createBoard() {
@@ -53,38 +65,51 @@ public class BoardService {
 
         var boardDto = modelMapper.map(persisted, BoardDto.class);
         boardCache.put(persisted.getId(), boardDto);
+        // new board has no rules, also drops a stale "unknown board" entry
+        mockRuleCache.markEmpty(persisted.getId());
+        boardIdFilter.add(persisted.getId());
 
         log.info("Created board: {}", persisted.getId());
         return boardDto;
     }
 
-    @Transactional(readOnly = true)
     public BoardDto getBoardDto(String boardId) {
-        var cachedOpt = boardCache.get(boardId);
-        if (cachedOpt.isPresent()) {
-            log.debug("Board cache hit: {}", boardId);
-            return cachedOpt.get();
-        }
+        return boardCache.get(boardId, this::loadBoardDto);
+    }
 
+    private BoardDto loadBoardDto(String boardId) {
         log.debug("Board cache miss: {}, fallback to DB", boardId);
         var boardOpt = boardRepository.findByIdAndDeletedFalse(boardId);
         if (boardOpt.isEmpty()) {
             throw new NotFoundException("Board not found by id: " + boardId);
         }
-
-        var boardDto = modelMapper.map(boardOpt.get(), BoardDto.class);
-        boardCache.put(boardDto.getId(), boardDto);
-        return boardDto;
+        return modelMapper.map(boardOpt.get(), BoardDto.class);
     }
 
     @Transactional
     public void deleteBoard(BoardDto boardDto) {
         log.info("Soft delete board: {}", boardDto.getId());
 
-        boardCache.invalidate(boardDto.getId());
-        mockRuleCache.invalidate(boardDto.getId());
-        webhookCache.invalidate(boardDto.getId());
-
         boardRepository.markDeleted(boardDto.getId());
+
+        // only once the delete is committed, a rollback leaves the board reachable
+        afterCommit(() -> {
+            boardIdFilter.remove(boardDto.getId());
+            // board, rules, webhooks and SSE subscribers go together
+            boardContextCache.invalidate(boardDto.getId());
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
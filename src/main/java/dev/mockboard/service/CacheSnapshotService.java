@@ -0,0 +1,184 @@
+package dev.mockboard.service;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardContextSnapshot;
+import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.repository.BoardRepository;
+import dev.mockboard.repository.MockRuleRepository;
+import dev.mockboard.repository.WebhookRepository;
+import dev.mockboard.repository.model.Board;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start of the board contexts. A snapshot is written on graceful shutdown and loaded on the next start,
+ * without one the most recent boards are loaded with bulk queries instead of one query per board on first use.
+ * Both happen on {@link ApplicationStartedEvent}, before readiness reports UP.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheSnapshotService implements MeterBinder {
+
+    private static final String SNAPSHOT_FILE = "cache-snapshot.bin";
+
+    private final ModelMapper modelMapper;
+    private final BoardRepository boardRepository;
+    private final MockRuleRepository mockRuleRepository;
+    private final WebhookRepository webhookRepository;
+    private final BoardContextCache boardContextCache;
+    private final BoardCache boardCache;
+    private final MockRuleCache mockRuleCache;
+    private final WebhookCache webhookCache;
+    private final MockRuleService mockRuleService;
+
+    @Value("${mockboard.data-path}")
+    private Path dataPath;
+
+    private volatile long warmUpMillis;
+    private volatile int warmUpBoards;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        var started = System.nanoTime();
+        var source = "snapshot";
+        var boards = restoreSnapshot(snapshotPath());
+        if (boards < 0) {
+            source = "db";
+            boards = loadRecentBoards(Constants.CACHE_WARMUP_MAX_BOARDS);
+        }
+
+        warmUpMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        warmUpBoards = boards;
+        log.info("Cache warm-up from {}: {} boards in {} ms", source, boards, warmUpMillis);
+    }
+
+    // on shutdown, once no more requests are served and pending webhooks are written
+    public void writeSnapshot() {
+        if (!Constants.CACHE_SNAPSHOT_ENABLED) return;
+
+        var started = System.nanoTime();
+        try {
+            var written = BoardContextSnapshot.write(snapshotPath(), boardContextCache.contexts());
+            log.info("Cache snapshot: {} boards written in {} ms", written,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            log.error("Failed to write cache snapshot", e);
+        }
+    }
+
+    // loaded parts are newer and kept, the snapshot is deleted once read, -1 without a usable snapshot
+    int restoreSnapshot(Path path) {
+        if (!Constants.CACHE_SNAPSHOT_ENABLED || !Files.exists(path)) return -1;
+
+        BoardContextSnapshot.Snapshot snapshot;
+        try {
+            snapshot = BoardContextSnapshot.read(path);
+        } catch (IOException e) {
+            log.warn("Unreadable cache snapshot {}, fallback to DB", path, e);
+            return -1;
+        } finally {
+            deleteQuietly(path);
+        }
+
+        var maxAge = Duration.ofMinutes(Constants.CACHE_SNAPSHOT_MAX_AGE_MINUTES);
+        if (snapshot.createdAt().plus(maxAge).isBefore(Instant.now())) {
+            log.info("Cache snapshot from {} is older than {}, fallback to DB", snapshot.createdAt(), maxAge);
+            return -1;
+        }
+
+        var activeBoardIds = new HashSet<>(boardRepository.findActiveBoardIds());
+        var restored = 0;
+        for (var entry : snapshot.entries()) {
+            var boardId = entry.boardId();
+            if (!activeBoardIds.contains(boardId)) continue;
+
+            if (entry.board() != null) {
+                boardCache.get(boardId, k -> entry.board());
+            }
+            if (entry.mockRules() != null) {
+                mockRuleCache.getMockRuleTable(boardId, k -> mockRuleService.toMockRuleTable(entry.mockRules()));
+            }
+            if (entry.webhooks() != null) {
+                webhookCache.load(boardId, k -> entry.webhooks());
+            }
+            restored++;
+        }
+        return restored;
+    }
+
+    // only the /m/ parts, boards in BoardCache count towards the active board limit
+    int loadRecentBoards(int maxBoards) {
+        var boards = boardRepository.findRecentActiveBoards(maxBoards);
+        if (boards.isEmpty()) return 0;
+
+        var boardIds = boards.stream().map(Board::getId).toList();
+        var mockRules = new HashMap<String, List<MockRuleDto>>();
+        try (var stream = mockRuleRepository.streamActiveByBoardIds(boardIds)) {
+            stream.forEach(mockRule -> mockRules.computeIfAbsent(mockRule.getBoardId(), k -> new ArrayList<>())
+                    .add(modelMapper.map(mockRule, MockRuleDto.class)));
+        }
+        var webhooks = new HashMap<String, List<WebhookDto>>();
+        try (var stream = webhookRepository.streamByBoardIds(boardIds)) {
+            stream.forEach(webhook -> webhooks.computeIfAbsent(webhook.getBoardId(), k -> new ArrayList<>())
+                    .add(modelMapper.map(webhook, WebhookDto.class)));
+        }
+
+        for (var board : boards) {
+            var boardId = board.getId();
+            mockRuleCache.getMockRuleTable(boardId, k -> mockRuleService.toMockRuleTable(mockRules.get(k)));
+            webhookCache.load(boardId, k -> webhooks.getOrDefault(k, Collections.emptyList()));
+        }
+        return boards.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("mockboard.cache.warmup.duration", this, TimeUnit.MILLISECONDS, s -> s.warmUpMillis)
+                .description("Time spent loading the board caches on start")
+                .register(registry);
+        Gauge.builder("mockboard.cache.warmup.boards", this, s -> s.warmUpBoards)
+                .description("Boards loaded into the cache on start")
+                .register(registry);
+    }
+
+    private Path snapshotPath() {
+        return dataPath.resolve(SNAPSHOT_FILE);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cache snapshot {}", path, e);
+        }
+    }
+}
@@ -1,22 +1,19 @@
 package dev.mockboard.service;
 
-import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContext;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardIdFilter;
 import dev.mockboard.common.domain.MockExecutionResult;
+import dev.mockboard.common.domain.MockResponsePlan;
 import dev.mockboard.common.domain.RequestMetadata;
-import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.exception.NotFoundException;
 import dev.mockboard.common.utils.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
 
-import java.util.Map;
-import java.util.Objects;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @Slf4j
@@ -24,77 +21,32 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MockExecutionService {
 
-    private final ObjectMapper objectMapper;
     private final MockRuleService mockRuleService;
-    private final TemplateFakerService templateFakerService;
+    private final BoardIdFilter boardIdFilter;
+    private final BoardContextCache boardContextCache;
 
     public MockExecutionResult execute(String boardId, RequestMetadata metadata) {
-        // it is safe, unless mockRuleService.getMockRules(boardDto) changes
-        var boardDto = BoardDto.builder().id(boardId).build();
-        var mockRule = findMatchingRule(boardDto, metadata.mockPath(), metadata.method()).orElse(null);
-        var statusCode = mockRule != null ? mockRule.getStatusCode() : 200;
-        var body = determineResponseBody(mockRule);
-        var headers = buildHeaders(mockRule);
-        applyDelay(mockRule);
-
-        return new MockExecutionResult(mockRule, headers, body, statusCode);
+        // the only cache lookup of the request, the capture reuses the context from the result
+        var context = boardContextCache.context(boardId);
+        var mockRule = findMatchingRule(context, metadata.mockPath(), metadata.method()).orElse(null);
+        var plan = mockRule != null ? mockRule.getResponsePlan() : MockResponsePlan.DEFAULT;
+        var body = plan.isStatic()
+                ? plan.staticBody()
+                : plan.template().render().getBytes(StandardCharsets.UTF_8);
+        return new MockExecutionResult(context, mockRule, plan.headers(), body, plan.isStatic(), plan.statusCode(), plan.delay());
     }
 
-    private Optional<MockRuleDto> findMatchingRule(BoardDto boardDto, String path, String method) {
-        var mockRules = mockRuleService.getMockRules(boardDto);
-        if (CollectionUtils.isEmpty(mockRules)) {
+    private Optional<MockRuleDto> findMatchingRule(BoardContext context, String path, String method) {
+        var mockRuleTable = mockRuleService.getMockRuleTable(context);
+        if (!mockRuleTable.boardExists()) {
+            // got past the board id filter, but does not exist
+            boardIdFilter.recordFalsePositive();
+            throw new NotFoundException("Board not found by id: " + context.boardId());
+        }
+        if (mockRuleTable.isEmpty()) {
             return Optional.empty();
         }
         var normalizedPath = StringUtils.removeTrailingSlash(path);
-        return mockRules.stream()
-                .filter(r -> r.getMethod().equalsIgnoreCase(method))
-                .filter(r -> r.matches(normalizedPath))
-                .min((r1, r2) -> {
-                    if (!Objects.equals(r1.getWildcardCount(), r2.getWildcardCount())) {
-                        return Integer.compare(r1.getWildcardCount(), r2.getWildcardCount());
-                    }
-                    return Integer.compare(r2.getPathLength(), r1.getPathLength());
-                });
-    }
-
-    private String determineResponseBody(MockRuleDto mockRule) {
-        if (mockRule == null) {
-            return Constants.DEFAULT_EXECUTION_RESPONSE;
-        }
-
-        var body = mockRule.getBody();
-        return (body == null || body.isEmpty())
-                ? "{}"
-                : templateFakerService.processTemplates(body);
-    }
-
-    private HttpHeaders buildHeaders(MockRuleDto mockRule) {
-        var headers = new HttpHeaders();
-        if (mockRule != null && mockRule.getHeaders() != null && !mockRule.getHeaders().isEmpty()) {
-            try {
-                var typeRef = new TypeReference<Map<String, String>>() {};
-                var headersMap = objectMapper.readValue(mockRule.getHeaders(), typeRef);
-                headersMap.forEach(headers::add);
-            } catch (Exception e) {
-                log.warn("Failed to parse headers, using default", e);
-                headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-            }
-        } else {
-            headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
-        }
-
-        return headers;
-    }
-
-    private void applyDelay(MockRuleDto mockRule) {
-        if (mockRule != null && mockRule.getDelay() > 0) {
-            try {
-                log.debug("Delaying [{}] for {}ms", Thread.currentThread(), mockRule.getDelay());
-                Thread.sleep(mockRule.getDelay());
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                log.warn("Delay interrupted", ex);
-            }
-        }
+        return Optional.ofNullable(mockRuleTable.match(method, normalizedPath));
     }
 }
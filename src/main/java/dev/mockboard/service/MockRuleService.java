@@ -1,15 +1,19 @@
 package dev.mockboard.service;
 
 import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContext;
 import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.domain.MockRuleTable;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import dev.mockboard.common.domain.response.IdResponse;
 import dev.mockboard.common.exception.BadRequestException;
 import dev.mockboard.common.exception.NotFoundException;
+import dev.mockboard.common.routing.MockResponsePlanCompiler;
 import dev.mockboard.common.utils.IdGenerator;
 import dev.mockboard.common.utils.JsonUtils;
 import dev.mockboard.common.validator.MockRuleValidator;
+import dev.mockboard.repository.BoardRepository;
 import dev.mockboard.repository.MockRuleRepository;
 import dev.mockboard.repository.model.MockRule;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +24,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
-import java.util.Collections;
 import java.util.List;
 
 @Slf4j
@@ -31,7 +34,9 @@ public class MockRuleService {
     private final ModelMapper modelMapper;
     private final MockRuleValidator mockRuleValidator;
     private final MockRuleRepository mockRuleRepository;
+    private final BoardRepository boardRepository;
     private final MockRuleCache mockRuleCache;
+    private final MockResponsePlanCompiler mockResponsePlanCompiler;
 
     @Transactional
     public IdResponse createMockRule(BoardDto boardDto, MockRuleDto mockRuleDto) {
@@ -48,7 +53,7 @@ public class MockRuleService {
         mockRuleDto.setHeaders(JsonUtils.minify(mockRuleDto.getHeaders()));
         mockRuleDto.setBody(JsonUtils.minify(mockRuleDto.getBody()));
         mockRuleDto.setTimestamp(Instant.now());
-        mockRuleDto.compilePattern();
+        compile(mockRuleDto);
         mockRuleCache.addMockRule(boardDto.getId(), mockRuleDto);
 
         var mockRule = modelMapper.map(mockRuleDto, MockRule.class);
@@ -58,21 +63,46 @@ public class MockRuleService {
     }
 
     public List<MockRuleDto> getMockRules(BoardDto boardDto) {
-        var cachedMockRules = mockRuleCache.getMockRules(boardDto.getId());
-        if (CollectionUtils.isEmpty(cachedMockRules)) {
-            var persistedMockRules = mockRuleRepository.findByBoardIdAndDeletedFalseOrderByTimestampDesc(boardDto.getId());
-            if (CollectionUtils.isEmpty(persistedMockRules)) {
-                return Collections.emptyList();
-            }
-
-            var dtos = persistedMockRules.stream()
-                    .map(mockRule -> modelMapper.map(mockRule, MockRuleDto.class))
-                    .peek(MockRuleDto::compilePattern)
-                    .toList();
-            mockRuleCache.addMockRules(boardDto.getId(), dtos);
-            return dtos;
+        return getMockRuleTable(boardDto).mockRules();
+    }
+
+    /**
+     * Table already held by the context, loaded on a miss.
+     */
+    public MockRuleTable getMockRuleTable(BoardContext context) {
+        return mockRuleCache.getMockRuleTable(context, this::loadMockRuleTable);
+    }
+
+    public MockRuleTable getMockRuleTable(BoardDto boardDto) {
+        return mockRuleCache.getMockRuleTable(boardDto.getId(), this::loadMockRuleTable);
+    }
+
+    /**
+     * Empty and unknown boards are cached as well,
+     * so boards without rules never go to the DB after the first miss.
+     */
+    private MockRuleTable loadMockRuleTable(String boardId) {
+        log.debug("Mock rules cache miss: {}, fallback to DB", boardId);
+        if (!boardRepository.existsByIdAndDeletedFalse(boardId)) {
+            return MockRuleTable.UNKNOWN_BOARD;
         }
-        return cachedMockRules;
+
+        var persistedMockRules = mockRuleRepository.findByBoardIdAndDeletedFalseOrderByTimestampDesc(boardId);
+        var dtos = persistedMockRules.stream()
+                .map(mockRule -> modelMapper.map(mockRule, MockRuleDto.class))
+                .toList();
+        return toMockRuleTable(dtos);
+    }
+
+    /**
+     * Compiles rules read from the DB or a cache snapshot, {@link MockRuleTable#EMPTY} when there are none.
+     */
+    public MockRuleTable toMockRuleTable(List<MockRuleDto> mockRules) {
+        if (CollectionUtils.isEmpty(mockRules)) {
+            return MockRuleTable.EMPTY;
+        }
+        mockRules.forEach(this::compile);
+        return MockRuleTable.of(mockRules);
     }
 
     @Transactional
@@ -86,19 +116,22 @@ public class MockRuleService {
                 .findFirst()
                 .orElseThrow(() -> new NotFoundException("Mock rule not found for id: " + mockRuleId));
 
-        existingDto.setMethod(mockRuleDto.getMethod());
-        existingDto.setPath(mockRuleDto.getPath());
-        existingDto.setHeaders(JsonUtils.minify(mockRuleDto.getHeaders()));
-        existingDto.setBody(JsonUtils.minify(mockRuleDto.getBody()));
-        existingDto.setStatusCode(mockRuleDto.getStatusCode());
-        existingDto.setDelay(mockRuleDto.getDelay());
-        existingDto.compilePattern();
-
-        var mockRule = modelMapper.map(existingDto, MockRule.class);
+        // the cached rule may be in use by running requests, the update goes to a copy published with a new table
+        var updatedDto = existingDto.toBuilder()
+                .method(mockRuleDto.getMethod())
+                .path(mockRuleDto.getPath())
+                .headers(JsonUtils.minify(mockRuleDto.getHeaders()))
+                .body(JsonUtils.minify(mockRuleDto.getBody()))
+                .statusCode(mockRuleDto.getStatusCode())
+                .delay(mockRuleDto.getDelay())
+                .build();
+        compile(updatedDto);
+
+        var mockRule = modelMapper.map(updatedDto, MockRule.class);
         mockRule.markNotNew();
         mockRuleRepository.save(mockRule);
 
-        mockRuleCache.updateMockRule(boardDto.getId(), existingDto);
+        mockRuleCache.updateMockRule(boardDto.getId(), updatedDto);
         log.info("Mock rule: {} updated for board: {}", mockRuleId, boardDto.getId());
         return new IdResponse(mockRuleId);
     }
@@ -117,4 +150,8 @@ public class MockRuleService {
         mockRuleRepository.markDeleted(mockRuleId);
         log.info("Mock rule marked as deleted: {}", mockRuleId);
     }
+
+    private void compile(MockRuleDto mockRuleDto) {
+        mockRuleDto.setResponsePlan(mockResponsePlanCompiler.compile(mockRuleDto));
+    }
 }
@@ -1,10 +1,14 @@
 package dev.mockboard.service;
 
+import dev.mockboard.common.cache.BoardContext;
 import dev.mockboard.common.cache.WebhookCache;
 import dev.mockboard.common.domain.MockExecutionResult;
 import dev.mockboard.common.domain.RequestMetadata;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.domain.response.CaptureStatsResponse;
+import dev.mockboard.common.exception.ServiceUnavailableException;
+import dev.mockboard.common.executor.BoardLaneExecutor;
 import dev.mockboard.common.utils.IdGenerator;
 import dev.mockboard.config.sse.SseManager;
 import dev.mockboard.event.DomainEvent;
@@ -14,13 +18,14 @@ import dev.mockboard.repository.model.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -32,68 +37,118 @@ public class WebhookService {
     private final WebhookCache webhookCache;
     private final WebhookRepository webhookRepository;
     private final SseManager sseManager;
+    private final BoardLaneExecutor boardLaneExecutor;
+    // one instance, the lane batches consecutive captures by handler identity
+    private final Consumer<List<Capture>> captureBatch = this::processWebhooks;
+
+    private record Capture(RequestMetadata metadata, MockExecutionResult result, long executionTime) {}
 
     public List<WebhookDto> getWebhooks(BoardDto boardDto) {
-        var cachedWebhooks = webhookCache.getWebhooks(boardDto.getId());
-        if (CollectionUtils.isEmpty(cachedWebhooks)) {
-            return getWebhooks(boardDto.getId());
+        return webhookCache.getWebhooks(boardDto.getId(), this::loadWebhooks);
+    }
+
+    public CaptureStatsResponse getCaptureStats(BoardDto boardDto) {
+        return webhookCache.captureSampler(boardDto.getId()).stats();
+    }
+
+    /**
+     * Captures of a board are processed one at a time in arrival order, on the lane of the board.
+     * Above the full capture rate of the board only the sampled requests get that far.
+     */
+    public void processWebhookAsync(RequestMetadata metadata, MockExecutionResult result, long executionTime) {
+        if (!result.boardContext().captureSampler().admit()) return;
+
+        boardLaneExecutor.execute(result.boardContext().boardId(), new Capture(metadata, result, executionTime), captureBatch);
+    }
+
+    /**
+     * A lane drain: the whole batch is encoded first with one reused buffer, then each capture is cached,
+     * persisted and pushed, in order.
+     */
+    private void processWebhooks(List<Capture> captures) {
+        var webhookDtos = encode(captures);
+        for (int i = 0; i < captures.size(); i++) {
+            var webhookDto = webhookDtos.get(i);
+            if (webhookDto != null) {
+                processWebhook(captures.get(i).result().boardContext(), webhookDto);
+            }
         }
-        return cachedWebhooks;
     }
 
-    @Async
-    public void processWebhookAsync(String boardId, RequestMetadata metadata, MockExecutionResult result, long executionTime) {
-        try {
-            var webhooks = webhookCache.getWebhooks(boardId);
-            if (CollectionUtils.isEmpty(webhooks)) {
-                log.debug("Initializing webhooks cache for boardId: {}", boardId);
-                getWebhooks(boardId);
+    private List<WebhookDto> encode(List<Capture> captures) {
+        var sb = new StringBuilder(1024);
+        var webhookDtos = new ArrayList<WebhookDto>(captures.size());
+        for (var capture : captures) {
+            try {
+                var metadata = capture.metadata();
+                var result = capture.result();
+                var webhookDto = new WebhookDto();
+                webhookDto.setId(IdGenerator.generateId());
+                webhookDto.setBoardId(result.boardContext().boardId());
+                webhookDto.setMatched(result.matchingMockRuleDto() != null);
+                webhookDto.setProcessingTimeMs(capture.executionTime());
+                webhookDto.setTimestamp(Instant.now());
+
+                webhookDto.setMethod(metadata.method());
+                webhookDto.setPath(metadata.mockPath());
+                sb.setLength(0);
+                webhookDto.setFullUrl(metadata.fullUrl(sb));
+                webhookDto.setQueryParams(metadata.queryParams());
+                sb.setLength(0);
+                webhookDto.setHeaders(metadata.headersJson(sb));
+                webhookDto.setBody(metadata.requestBodyString());
+                webhookDto.setContentType(metadata.contentType());
+                webhookDto.setStatusCode(result.statusCode());
+                webhookDtos.add(webhookDto);
+            } catch (Exception e) {
+                log.error("Failed to encode webhook", e);
+                webhookDtos.add(null);
             }
+        }
+        return webhookDtos;
+    }
 
-            log.debug("Processing webhook async [{}] for key: {}", Thread.currentThread(), boardId);
-            var webhookDto = new WebhookDto();
-            webhookDto.setId(IdGenerator.generateId());
-            webhookDto.setBoardId(boardId);
-            webhookDto.setMatched(result.matchingMockRuleDto() != null);
-            webhookDto.setProcessingTimeMs(executionTime);
-            webhookDto.setTimestamp(Instant.now());
-
-            webhookDto.setMethod(metadata.method());
-            webhookDto.setPath(metadata.mockPath());
-            webhookDto.setFullUrl(metadata.fullUrl());
-            webhookDto.setQueryParams(metadata.queryParams());
-            webhookDto.setHeaders(metadata.headers());
-            webhookDto.setBody(metadata.requestBody());
-            webhookDto.setContentType(metadata.contentType());
-            webhookDto.setStatusCode(result.statusCode());
-
-            var cachedResultDto = webhookCache.addWebhook(boardId, webhookDto);
-            // when ids are equals - means new object added, should process insert
-            // otherwise - reference rewrite happened, should process update and use cachedResultDto
-            if (cachedResultDto.getId().equals(webhookDto.getId())) {
-                var webhook = modelMapper.map(webhookDto, Webhook.class);
-                eventQueue.publish(DomainEvent.create(webhook, webhook.getId(), Webhook.class));
-                sseManager.broadcast(boardId, webhookDto);
-            } else {
-                var webhook = modelMapper.map(cachedResultDto, Webhook.class);
+    private void processWebhook(BoardContext context, WebhookDto webhookDto) {
+        try {
+            var cached = loadWebhookRing(context);
+            log.debug("Processing webhook async [{}] for key: {}", Thread.currentThread(), context.boardId());
+
+            // when the ring was full, webhookDto took over the id of the evicted capture - its row is updated
+            var recycled = cached && webhookCache.addWebhook(context, webhookDto);
+            var webhook = modelMapper.map(webhookDto, Webhook.class);
+            if (recycled) {
                 eventQueue.publish(DomainEvent.update(webhook, webhook.getId(), Webhook.class));
-                sseManager.broadcast(boardId, cachedResultDto);
+            } else {
+                eventQueue.publish(DomainEvent.create(webhook, webhook.getId(), Webhook.class));
             }
+            sseManager.broadcast(context, webhookDto);
         } catch (Exception e) {
             log.error("Failed to process webhook", e);
         }
     }
 
-    private List<WebhookDto> getWebhooks(String boardId) {
+    /**
+     * @return false when the DB is unavailable, the capture is then only written, an empty ring would hide the persisted ones
+     */
+    private boolean loadWebhookRing(BoardContext context) {
+        try {
+            webhookCache.load(context, this::loadWebhooks);
+            return true;
+        } catch (ServiceUnavailableException e) {
+            log.debug("Webhooks of {} not cached, database unavailable", context.boardId());
+            return false;
+        }
+    }
+
+    private List<WebhookDto> loadWebhooks(String boardId) {
+        log.debug("Initializing webhooks cache for boardId: {}", boardId);
         var persistedWebhooks = webhookRepository.findByBoardIdOrderByTimestampDesc(boardId);
         if (CollectionUtils.isEmpty(persistedWebhooks)) {
             return Collections.emptyList();
         }
 
-        var dtos = persistedWebhooks.stream()
+        return persistedWebhooks.stream()
                 .map(webhook -> modelMapper.map(webhook, WebhookDto.class))
                 .toList();
-        webhookCache.addWebhooks(boardId, dtos);
-        return dtos;
     }
 }
@@ -3,6 +3,7 @@ package dev.mockboard.web.api;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.domain.response.CaptureStatsResponse;
 import dev.mockboard.common.domain.response.IdResponse;
 import dev.mockboard.service.BoardSecurityService;
 import dev.mockboard.service.BoardService;
@@ -92,4 +93,12 @@ public class BoardController {
         var webhooks = webhookService.getWebhooks(boardDto);
         return new ResponseEntity<>(webhooks, HttpStatus.OK);
     }
+
+    @GetMapping("/{boardId}/webhooks/capture")
+    public ResponseEntity<CaptureStatsResponse> getCaptureStats(@PathVariable String boardId,
+                                                                @RequestHeader(OWNER_TOKEN_HEADER_KEY) String ownerToken) {
+        var boardDto = boardSecurityService.validateOwnershipAndGet(boardId, ownerToken);
+        var captureStats = webhookService.getCaptureStats(boardDto);
+        return new ResponseEntity<>(captureStats, HttpStatus.OK);
+    }
 }
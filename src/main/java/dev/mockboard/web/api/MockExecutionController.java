@@ -1,16 +1,26 @@
 package dev.mockboard.web.api;
 
+import dev.mockboard.common.cache.BoardIdFilter;
+import dev.mockboard.common.domain.MockExecutionResult;
+import dev.mockboard.common.domain.RequestMetadata;
+import dev.mockboard.common.exception.NotFoundException;
+import dev.mockboard.common.timer.HashedWheelTimer;
 import dev.mockboard.common.validator.RequestMetadataValidator;
 import dev.mockboard.service.MockExecutionService;
 import dev.mockboard.service.WebhookService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
 
 @Slf4j
 @RestController
@@ -18,10 +28,20 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class MockExecutionController {
 
+    // on top of the delay, the servlet async default would cut long delays short
+    private static final long DEFERRED_TIMEOUT_MARGIN_MS = 5_000;
+
+    private final BoardIdFilter boardIdFilter;
     private final RequestMetadataValidator requestMetadataValidator;
     private final MockExecutionService mockExecutionService;
     private final WebhookService webhookService;
+    private final HashedWheelTimer hashedWheelTimer;
 
+    /**
+     * Static bodies are written to the response directly and null is returned,
+     * templated bodies go through {@link ResponseEntity}, delayed ones through a {@link DeferredResult}
+     * completed by the delay timer.
+     */
     @RequestMapping(value = "/**", method = {
             RequestMethod.GET,
             RequestMethod.POST,
@@ -31,17 +51,57 @@ public class MockExecutionController {
             RequestMethod.OPTIONS,
             RequestMethod.HEAD,
     })
-    public ResponseEntity<String> executeMock(@PathVariable String boardId, HttpServletRequest request) {
+    public Object executeMock(@PathVariable String boardId,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (!boardIdFilter.mightContain(boardId)) {
+            // unknown board, rejected before reading the body or touching caches and DB
+            throw new NotFoundException("Board not found by id: " + boardId);
+        }
+
         var executionStart = System.currentTimeMillis();
         var metadata = requestMetadataValidator.validateAndGet(boardId, request);
         var result = mockExecutionService.execute(boardId, metadata);
+        // captured here for delayed responses too, with the delay counted, the timer thread only completes them
+        capture(metadata, result, System.currentTimeMillis() - executionStart + result.delay());
+        if (result.delay() > 0) {
+            return deferred(result);
+        }
 
-        var executionTime = System.currentTimeMillis() - executionStart;
+        if (!result.staticBody()) {
+            return toResponseEntity(result);
+        }
+        // pre-encoded body goes straight to the output stream, no converter negotiation
+        write(response, result.statusCode(), result.headers(), result.responseBody());
+        return null;
+    }
+
+    private DeferredResult<ResponseEntity<byte[]>> deferred(MockExecutionResult result) {
+        // request thread is released, the response is written on async dispatch
+        var deferredResult = new DeferredResult<ResponseEntity<byte[]>>(result.delay() + DEFERRED_TIMEOUT_MARGIN_MS);
+        var timeout = hashedWheelTimer.schedule(() -> deferredResult.setResult(toResponseEntity(result)), result.delay());
+        // client is gone, free the timer slot
+        deferredResult.onError(e -> timeout.cancel());
+        deferredResult.onTimeout(timeout::cancel);
+        return deferredResult;
+    }
+
+    private void capture(RequestMetadata metadata, MockExecutionResult result, long executionTime) {
         log.debug("Execution time: {}ms", executionTime);
-        webhookService.processWebhookAsync(boardId, metadata, result, executionTime);
+        webhookService.processWebhookAsync(metadata, result, executionTime);
+    }
+
+    private ResponseEntity<byte[]> toResponseEntity(MockExecutionResult result) {
         return ResponseEntity
                 .status(result.statusCode())
                 .headers(result.headers())
                 .body(result.responseBody());
     }
+
+    private void write(HttpServletResponse response, int status, HttpHeaders headers, byte[] body) throws IOException {
+        response.setStatus(status);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
 }
@@ -3,14 +3,20 @@ package dev.mockboard;
 import dev.mockboard.common.cache.BoardCache;
 import dev.mockboard.common.cache.MockRuleCache;
 import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.db.DbCircuitBreaker;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.domain.response.CaptureStatsResponse;
 import dev.mockboard.common.domain.response.IdResponse;
+import dev.mockboard.common.exception.ServiceUnavailableException;
+import dev.mockboard.event.EventConsumer;
 import dev.mockboard.repository.BoardRepository;
 import dev.mockboard.repository.MockRuleRepository;
+import dev.mockboard.repository.WebhookBatchWriter;
 import dev.mockboard.repository.WebhookRepository;
 import dev.mockboard.repository.model.MockRule;
+import dev.mockboard.service.CacheSnapshotService;
 import dev.mockboard.service.CleanupService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,14 +24,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 
 @ActiveProfiles("test")
@@ -47,6 +59,10 @@ public class MockboardIT {
     @Autowired private WebhookCache webhookCache;
 
     @Autowired private CleanupService cleanupService;
+    @Autowired private CacheSnapshotService cacheSnapshotService;
+    @Autowired private EventConsumer eventConsumer;
+    @Autowired private WebhookBatchWriter webhookBatchWriter;
+    @Autowired private DbCircuitBreaker dbCircuitBreaker;
 
     private RestClient restClient;
 
@@ -118,8 +134,9 @@ public class MockboardIT {
                 .body(String.class);
         assertThat(body).isNotNull().contains("success");
 
-        var cached = webhookCache.getWebhooks(boardId);
-        assertThat(cached).isNotEmpty().hasSize(1);
+        // captured on the lane of the board, after the response
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(webhookCache.getWebhooks(boardId)).isNotEmpty().hasSize(1));
     }
 
     @Test
@@ -155,6 +172,11 @@ public class MockboardIT {
         var mockRule = mockRuleRepository.findById(mockId);
         assertThat(mockRule).isPresent();
         assertThat(mockRule.get().getBody()).contains("updated");
+
+        // warm start runs the bulk queries but keeps what is loaded already
+        cacheSnapshotService.warmUp();
+        assertThat(mockRuleCache.getMockRules(boardId)).singleElement()
+                .satisfies(mr -> assertThat(mr.getPath()).isEqualTo("/api/updated"));
     }
 
     @Test
@@ -166,8 +188,8 @@ public class MockboardIT {
                 .body(String.class);
         assertThat(body).isNotNull().contains("updated");
 
-        var cached = webhookCache.getWebhooks(boardId);
-        assertThat(cached).isNotEmpty().hasSize(2);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(webhookCache.getWebhooks(boardId)).isNotEmpty().hasSize(2));
     }
 
     @Test
@@ -203,15 +225,31 @@ public class MockboardIT {
 
     @Test
     @Order(8)
-    void executeDeleteMockRule() {
+    void executeDeleteMockRule() throws Exception {
+        // the capture reaches the dashboard as one pre-rendered frame
+        var stream = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/boards/" + boardId + "/stream?token=" + token))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        var lines = stream.body().iterator();
+        assertThat(lines.next()).isEqualTo("event:" + Constants.SSE_EMITTER_EVENT_PING);
+
         var body = restClient.get()
                 .uri("/m/" + boardId + "/api/updated")
                 .retrieve()
                 .body(String.class);
         assertThat(body).isNotNull().containsIgnoringCase("Hello from Mockboard.dev");
 
-        var cached = webhookCache.getWebhooks(boardId);
-        assertThat(cached).isNotEmpty().hasSize(3);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(webhookCache.getWebhooks(boardId)).isNotEmpty().hasSize(3));
+
+        var line = lines.next();
+        while (!line.equals("event:" + Constants.SSE_EMITTER_EVENT_WEBHOOK)) {
+            line = lines.next();
+        }
+        assertThat(lines.next()).matches("id:\\d+");
+        assertThat(lines.next()).startsWith("data:{").contains("/api/updated");
+        stream.body().close();
 
         await().atMost(Duration.ofSeconds(Constants.EVENT_DEDUP_PROCESS_DELAY)).untilAsserted(() -> {
             assertThat(webhookRepository.count()).isEqualTo(3);
@@ -227,6 +265,26 @@ public class MockboardIT {
                 .retrieve()
                 .body(new ParameterizedTypeReference<List<WebhookDto>>() {});
         assertThat(webhooks).isNotEmpty().hasSize(3);
+
+        var captureStats = restClient.get()
+                .uri("/api/boards/" + boardId + "/webhooks/capture")
+                .header(Constants.OWNER_TOKEN_HEADER_KEY, token)
+                .retrieve()
+                .body(CaptureStatsResponse.class);
+        assertThat(captureStats).isNotNull();
+        assertThat(captureStats.sampling()).isFalse();
+        assertThat(captureStats.captured()).isEqualTo(3);
+        assertThat(captureStats.skipped()).isZero();
+
+        // pending captures written with one MERGE batch, a second MERGE of the same rows updates them
+        eventConsumer.flush();
+        var persisted = webhookRepository.findByBoardIdOrderByTimestampDesc(boardId);
+        assertThat(persisted).hasSize(3);
+        persisted.forEach(webhook -> webhook.setStatusCode(418));
+        assertThat(webhookBatchWriter.merge(persisted)).isEqualTo(3);
+        assertThat(webhookRepository.count()).isEqualTo(3);
+        assertThat(webhookRepository.findByBoardIdOrderByTimestampDesc(boardId))
+                .allSatisfy(webhook -> assertThat(webhook.getStatusCode()).isEqualTo(418));
     }
 
     @Test
@@ -264,4 +322,22 @@ public class MockboardIT {
         // cascade deleted
         assertThat(webhookRepository.count()).isZero();
     }
+
+    @Test
+    @Order(12)
+    void dbCircuitBreakerRejectsRepositoryCalls() {
+        for (int i = 0; i < Constants.DB_BREAKER_FAILURE_THRESHOLD; i++) {
+            dbCircuitBreaker.record(0, new CannotGetJdbcConnectionException("Connection is not available"));
+        }
+
+        try {
+            assertThatThrownBy(() -> boardRepository.count()).isInstanceOf(ServiceUnavailableException.class);
+            assertThatThrownBy(() -> cleanupService.hardDeleteBoards()).isInstanceOf(ServiceUnavailableException.class);
+            assertThat(dbCircuitBreaker.health().getStatus()).isEqualTo(DbCircuitBreaker.DEGRADED);
+        } finally {
+            // the context is shared, the shutdown flush must reach the DB
+            dbCircuitBreaker.reset();
+        }
+        assertThat(boardRepository.count()).isZero();
+    }
 }
@@ -0,0 +1,127 @@
+package dev.mockboard.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Minimal harness for the micro benchmarks in this package.
+ * Not a JMH replacement, just enough to compare two code paths on the same JVM:
+ * warmup, then the best of a few timed rounds.
+ * {@link #runParallel} runs the same loop on several platform threads at once, ns/op is then wall time per op
+ * across all threads (inverse throughput), B/op is summed over the threads.
+ * Benchmarks are plain main() classes, surefire does not pick them up.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Bench {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private static volatile Object sink;
+
+    public record Result(String name, double nsPerOp, double bytesPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%-48s %10.1f ns/op %10.1f B/op", name, nsPerOp, bytesPerOp);
+        }
+    }
+
+    public static Result run(String name, int opsPerRound, Supplier<?> op) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            loop(opsPerRound, op);
+        }
+
+        double bestNs = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            loop(opsPerRound, op);
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+
+            bestNs = Math.min(bestNs, (double) elapsed / opsPerRound);
+            bestBytes = Math.min(bestBytes, (double) bytes / opsPerRound);
+        }
+
+        var result = new Result(name, bestNs, bestBytes);
+        System.out.println(result);
+        return result;
+    }
+
+    public static Result runParallel(String name, int threads, int opsPerThread, Supplier<?> op) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            parallelRound(threads, opsPerThread, op);
+        }
+
+        double bestNs = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        long totalOps = (long) threads * opsPerThread;
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            var measured = parallelRound(threads, opsPerThread, op);
+            bestNs = Math.min(bestNs, (double) measured[0] / totalOps);
+            bestBytes = Math.min(bestBytes, (double) measured[1] / totalOps);
+        }
+
+        var result = new Result(name + " [" + threads + " threads]", bestNs, bestBytes);
+        System.out.println(result);
+        return result;
+    }
+
+    // {elapsed ns, allocated bytes}
+    private static long[] parallelRound(int threads, int opsPerThread, Supplier<?> op) {
+        var start = new CountDownLatch(1);
+        var allocated = new AtomicLong();
+        var workers = new ArrayList<Thread>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                long bytesBefore = allocatedBytes();
+                loop(opsPerThread, op);
+                allocated.addAndGet(allocatedBytes() - bytesBefore);
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return new long[]{System.nanoTime() - begin, allocated.get()};
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void loop(int ops, Supplier<?> op) {
+        Object last = null;
+        for (int i = 0; i < ops; i++) {
+            last = op.get();
+        }
+        sink = last;
+    }
+
+    private static long allocatedBytes() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean) {
+            return sunBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.mockboard.benchmark;
+
+import dev.mockboard.common.faker.TemplateFakerDictionary;
+import net.datafaker.Faker;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Template value generation from many threads: one shared Faker (and UUID.randomUUID) vs the striped dictionary.
+ * Each op generates the values of a typical templated body.
+ * Scaling only shows with more cores than 1, run it with -Dthreads=... on the target box.
+ * Run: main() from the IDE or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=dev.mockboard.benchmark.FakerStripesBenchmark
+ */
+public class FakerStripesBenchmark {
+
+    /*
+    LATEST RUN (JDK 21, 1 vCPU, so no scaling to show here):
+
+    shared Faker [1 threads]                            13106.7 ns/op     4077.0 B/op
+    striped dictionary [1 threads]                      12261.0 ns/op     4420.9 B/op
+    shared Faker [2 threads]                            13656.4 ns/op     4469.2 B/op
+    striped dictionary [2 threads]                      12749.3 ns/op     4420.7 B/op
+    shared Faker [4 threads]                            12940.4 ns/op     4494.2 B/op
+    striped dictionary [4 threads]                      13284.3 ns/op     4444.9 B/op
+
+    Threads only time-slice on one core, the numbers stay within noise (+-30% between runs).
+    On a multi-core box the shared side is expected to flatten out on the Random seed CAS and SecureRandom lock.
+     */
+
+    private static final int OPS_PER_THREAD = 20_000;
+    private static final List<String> KEYS = List.of("user.fullName", "user.email", "address.city", "system.int", "system.uuid");
+
+    public static void main(String[] args) {
+        var sharedFaker = new Faker(Locale.US);
+        List<Supplier<String>> shared = List.of(
+                () -> sharedFaker.name().fullName(),
+                () -> sharedFaker.internet().emailAddress(),
+                () -> sharedFaker.address().city(),
+                () -> String.valueOf(sharedFaker.random().nextInt(0, 10000)),
+                () -> UUID.randomUUID().toString());
+
+        TemplateFakerDictionary.initializeDictionary();
+        var striped = KEYS.stream().map(TemplateFakerDictionary.getDictionary()::get).toList();
+
+        var cores = Runtime.getRuntime().availableProcessors();
+        var threads = Integer.getInteger("threads", Math.max(4, cores * 2));
+        for (int t = 1; t <= threads; t *= 2) {
+            Bench.runParallel("shared Faker", t, OPS_PER_THREAD, () -> generate(shared));
+            Bench.runParallel("striped dictionary", t, OPS_PER_THREAD, () -> generate(striped));
+        }
+    }
+
+    private static int generate(List<Supplier<String>> suppliers) {
+        var length = 0;
+        for (var supplier : suppliers) {
+            length += supplier.get().length();
+        }
+        return length;
+    }
+}
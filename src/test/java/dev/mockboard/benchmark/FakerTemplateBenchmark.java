@@ -0,0 +1,68 @@
+package dev.mockboard.benchmark;
+
+import dev.mockboard.common.faker.TemplateFakerDictionary;
+import dev.mockboard.common.faker.TemplateFakerProcessor;
+import org.apache.commons.text.StringSubstitutor;
+import tools.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Templated body rendering: StringSubstitutor over the raw body on every request vs the template compiled on rule save.
+ * The faker values themselves cost the same on both sides, the cheap system.* keys show the parsing overhead best.
+ * Run: main() from the IDE or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=dev.mockboard.benchmark.FakerTemplateBenchmark
+ */
+public class FakerTemplateBenchmark {
+
+    /*
+    LATEST RUN (JDK 21, 1 thread):
+
+    system keys: per request substitution                2424.7 ns/op     2795.2 B/op
+    system keys: compiled template                       1082.7 ns/op      863.3 B/op
+    user keys: per request substitution                  9519.9 ns/op     5889.1 B/op
+    user keys: compiled template                         7320.5 ns/op     4311.8 B/op
+    compile (on rule save)                               1370.3 ns/op     2744.0 B/op
+
+    user.* values come from Datafaker and are noisy (+-20% between runs), the saving per body stays ~1.5 KB.
+     */
+
+    private static final int OPS = 200_000;
+
+    private static final String SYSTEM_BODY = """
+            {"id": {{system.int}}, "requestId": "{{system.uuid}}", "active": {{system.bool}},
+             "score": {{system.double}}, "tags": ["mock", "board", "test"], "meta": {"source": "mockboard", "version": 3}}""";
+    private static final String USER_BODY = """
+            {"id": 42, "name": "{{user.fullName}}", "email": "{{user.email}}", "city": "{{address.city}}",
+             "roles": ["admin", "user"], "meta": {"source": "mockboard", "version": 3}}""";
+
+    public static void main(String[] args) {
+        var processor = new TemplateFakerProcessor();
+        var substitutor = legacySubstitutor();
+        var systemTemplate = processor.compile(SYSTEM_BODY);
+        var userTemplate = processor.compile(USER_BODY);
+
+        Bench.run("system keys: per request substitution", OPS, () -> substitutor.replace(SYSTEM_BODY));
+        Bench.run("system keys: compiled template", OPS, systemTemplate::render);
+        Bench.run("user keys: per request substitution", OPS, () -> substitutor.replace(USER_BODY));
+        Bench.run("user keys: compiled template", OPS, userTemplate::render);
+        Bench.run("compile (on rule save)", OPS, () -> processor.compile(USER_BODY));
+    }
+
+    // previous TemplateFakerProcessor substitution
+    private static StringSubstitutor legacySubstitutor() {
+        var encoder = JsonStringEncoder.getInstance();
+        var substitutor = new StringSubstitutor(key -> {
+            var trimmedKey = key.trim();
+            if (trimmedKey.length() > 48) return null;
+            for (char c : trimmedKey.toCharArray()) {
+                if (c == '"' || c == '\n' || c == '\r' || c == ':' || c == '{' || c == '}') return null;
+            }
+            var supplier = TemplateFakerDictionary.getDictionary().get(trimmedKey);
+            if (supplier != null) return new String(encoder.quoteAsCharArray(supplier.get()));
+            return "[unknown: " + trimmedKey + "]";
+        });
+        substitutor.setVariablePrefix("{{");
+        substitutor.setVariableSuffix("}}");
+        substitutor.setEnableSubstitutionInVariables(false);
+        return substitutor;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.mockboard.benchmark;
+
+import dev.mockboard.common.domain.MockExecutionResult;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.faker.TemplateFakerProcessor;
+import dev.mockboard.common.routing.MockResponsePlanCompiler;
+import org.springframework.http.HttpHeaders;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Response building for a matched static-body rule: per-request headers parsing and
+ * template pass vs the response plan compiled on rule create/update.
+ * Both sides end with UTF-8 bytes, the old String body was encoded by the message converter anyway.
+ * Run: main() from the IDE or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=dev.mockboard.benchmark.MockResponsePlanBenchmark
+ */
+public class MockResponsePlanBenchmark {
+
+    /*
+    LATEST RUN (JDK 21, 1 thread):
+
+    per request: headers parse + template                1688.5 ns/op     2272.0 B/op
+    response plan                                           9.4 ns/op       32.0 B/op
+     */
+
+    private static final int OPS = 200_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+    private static final TemplateFakerProcessor TEMPLATE_PROCESSOR = new TemplateFakerProcessor();
+
+    public static void main(String[] args) {
+        var mockRule = MockRuleDto.builder()
+                .id("rule-1")
+                .method("GET")
+                .path("/api/users/*")
+                .headers("{\"Content-Type\":\"application/json\",\"X-Request-Source\":\"mockboard\"}")
+                .body("{\"id\":42,\"name\":\"John Doe\",\"roles\":[\"admin\",\"user\"],\"active\":true}")
+                .statusCode(200)
+                .delay(0)
+                .build();
+        mockRule.setResponsePlan(new MockResponsePlanCompiler(OBJECT_MAPPER, new TemplateFakerProcessor()).compile(mockRule));
+
+        Bench.run("per request: headers parse + template", OPS, () -> perRequest(mockRule));
+        Bench.run("response plan", OPS, () -> fromPlan(mockRule));
+    }
+
+    // previous MockExecutionService body/headers building
+    private static MockExecutionResult perRequest(MockRuleDto mockRule) {
+        var headers = new HttpHeaders();
+        var typeRef = new TypeReference<Map<String, String>>() {};
+        OBJECT_MAPPER.readValue(mockRule.getHeaders(), typeRef).forEach(headers::add);
+        var body = TEMPLATE_PROCESSOR.compile(mockRule.getBody()).render();
+        return new MockExecutionResult(null, mockRule, headers, body.getBytes(StandardCharsets.UTF_8), false,
+                mockRule.getStatusCode(), mockRule.getDelay());
+    }
+
+    private static MockExecutionResult fromPlan(MockRuleDto mockRule) {
+        var plan = mockRule.getResponsePlan();
+        return new MockExecutionResult(null, mockRule, plan.headers(), plan.staticBody(), true,
+                plan.statusCode(), plan.delay());
+    }
+}
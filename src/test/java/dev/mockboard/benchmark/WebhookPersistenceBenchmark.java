@@ -0,0 +1,103 @@
+package dev.mockboard.benchmark;
+
+import dev.mockboard.MockboardApplication;
+import dev.mockboard.repository.BoardRepository;
+import dev.mockboard.repository.WebhookBatchWriter;
+import dev.mockboard.repository.WebhookRepository;
+import dev.mockboard.repository.model.Board;
+import dev.mockboard.repository.model.Webhook;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writing one drained batch of webhooks to the H2 test database: repository saveAll (one INSERT/UPDATE per entity)
+ * vs {@link WebhookBatchWriter} (MERGE in JDBC batches, one transaction).
+ * Boots the application with the test profile and no web server. Rows/s = batch size / ns per op.
+ * Run: main() from the IDE or
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=dev.mockboard.benchmark.WebhookPersistenceBenchmark
+ */
+public class WebhookPersistenceBenchmark {
+
+    /*
+    LATEST RUN (JDK 21, 1 thread, H2 in-memory, 500 rows per batch, ~1 KB body):
+
+    insert: saveAll                                  92864485.3 ns/op 13291350.0 B/op
+    update: saveAll                                  77987042.5 ns/op 16238750.0 B/op
+    insert: batch MERGE                              23521953.0 ns/op  6229518.0 B/op
+    update: batch MERGE                              24366229.0 ns/op  8276558.0 B/op
+    insert: saveAll                                        5384 rows/s
+    update: saveAll                                        6411 rows/s
+    insert: batch MERGE                                   21257 rows/s
+    update: batch MERGE                                   20520 rows/s
+
+    In-memory H2 isolates the statement overhead, the file database of the default profile was not measured.
+    */
+
+    private static final int BATCH = 500;
+    private static final int OPS = 4;
+    private static final String BOARD_ID = "benchmark-board";
+
+    public static void main(String[] args) {
+        try (var context = new SpringApplicationBuilder(MockboardApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run()) {
+            var boardRepository = context.getBean(BoardRepository.class);
+            var webhookRepository = context.getBean(WebhookRepository.class);
+            var webhookBatchWriter = context.getBean(WebhookBatchWriter.class);
+            boardRepository.save(Board.builder().id(BOARD_ID).ownerToken("token").timestamp(Instant.now()).build());
+
+            var inserted = Bench.run("insert: saveAll", OPS, () -> webhookRepository.saveAll(batch()));
+            var pending = batch();
+            webhookRepository.saveAll(pending);
+            pending.forEach(Webhook::markNotNew);
+            var updated = Bench.run("update: saveAll", OPS, () -> webhookRepository.saveAll(updates(pending)));
+            webhookRepository.deleteAll();
+
+            var merged = Bench.run("insert: batch MERGE", OPS, () -> webhookBatchWriter.merge(batch()));
+            var recent = batch();
+            webhookBatchWriter.merge(recent);
+            var mergedUpdates = Bench.run("update: batch MERGE", OPS, () -> webhookBatchWriter.merge(updates(recent)));
+            webhookRepository.deleteAll();
+
+            for (var result : List.of(inserted, updated, merged, mergedUpdates)) {
+                System.out.printf("%-48s %10.0f rows/s%n", result.name(), BATCH * 1e9 / result.nsPerOp());
+            }
+        }
+    }
+
+    private static List<Webhook> batch() {
+        var now = Instant.now();
+        var body = "{\"event\":\"" + "x".repeat(1_000) + "\"}";
+        var batch = new ArrayList<Webhook>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(Webhook.builder()
+                    .id(UUID.randomUUID().toString())
+                    .boardId(BOARD_ID)
+                    .method("POST")
+                    .path("/api/events/" + i)
+                    .fullUrl("http://localhost:8080/m/" + BOARD_ID + "/api/events/" + i)
+                    .queryParams("{\"page\":\"1\"}")
+                    .headers("{\"content-type\":\"application/json\"}")
+                    .body(body)
+                    .contentType("application/json")
+                    .statusCode(200)
+                    .matched(true)
+                    .timestamp(now)
+                    .processingTimeMs(3)
+                    .build());
+        }
+        return batch;
+    }
+
+    // the same rows written again, as for an UPDATE event of a persisted capture
+    private static List<Webhook> updates(List<Webhook> batch) {
+        batch.forEach(webhook -> webhook.setProcessingTimeMs(webhook.getProcessingTimeMs() + 1));
+        return batch;
+    }
+}
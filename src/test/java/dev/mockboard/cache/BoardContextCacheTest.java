@@ -0,0 +1,139 @@
+package dev.mockboard.cache;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.domain.MockRuleTable;
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.config.sse.SseSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class BoardContextCacheTest {
+
+    private static final String BOARD_ID = "board-1";
+
+    private BoardContextCache boardContextCache;
+    private BoardCache boardCache;
+    private MockRuleCache mockRuleCache;
+    private WebhookCache webhookCache;
+
+    @BeforeEach
+    void setUp() {
+        boardContextCache = new BoardContextCache();
+        boardCache = new BoardCache(boardContextCache);
+        mockRuleCache = new MockRuleCache(boardContextCache);
+        webhookCache = new WebhookCache(boardContextCache);
+    }
+
+    @Test
+    void viewsShareOneEntry() {
+        boardCache.put(BOARD_ID, BoardDto.builder().id(BOARD_ID).build());
+        mockRuleCache.markEmpty(BOARD_ID);
+        webhookCache.addWebhook(BOARD_ID, createWebhook());
+
+        assertThat(boardContextCache.size()).isEqualTo(1);
+        var context = boardContextCache.getIfPresent(BOARD_ID);
+        assertThat(context.board().getId()).isEqualTo(BOARD_ID);
+        assertThat(context.mockRuleTable()).isSameAs(MockRuleTable.EMPTY);
+        assertThat(context.webhookRing().isEmpty()).isFalse();
+    }
+
+    @Test
+    void sizeCountsLoadedBoardsOnly() {
+        boardCache.put(BOARD_ID, BoardDto.builder().id(BOARD_ID).build());
+        mockRuleCache.put("unknown-board", MockRuleTable.UNKNOWN_BOARD);
+
+        assertThat(boardCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDropsAllPartsAndClosesSubscribers() {
+        boardCache.put(BOARD_ID, BoardDto.builder().id(BOARD_ID).build());
+        mockRuleCache.markEmpty(BOARD_ID);
+        webhookCache.addWebhook(BOARD_ID, createWebhook());
+        var context = boardContextCache.context(BOARD_ID);
+        context.subscribers().add(new SseSubscriber(1_000, 1, Runnable::run));
+
+        boardContextCache.invalidate(BOARD_ID);
+
+        assertThat(boardCache.get(BOARD_ID)).isEmpty();
+        assertThat(mockRuleCache.getMockRuleTable(BOARD_ID)).isNull();
+        assertThat(webhookCache.getWebhooks(BOARD_ID)).isEmpty();
+        // removal listener runs on the cache executor
+        await().atMost(Duration.ofSeconds(5)).until(() -> context.subscribers().isEmpty());
+    }
+
+    @Test
+    void weightFollowsWebhookBodies() {
+        webhookCache.addWebhook(BOARD_ID, createWebhook());
+        var emptyWeight = boardContextCache.weightedSize();
+
+        for (int i = 0; i < Constants.MAX_WEBHOOKS; i++) {
+            var webhook = createWebhook();
+            webhook.setBody("x".repeat(5_000));
+            webhookCache.addWebhook(BOARD_ID, webhook);
+        }
+        boardContextCache.cleanUp();
+
+        var context = boardContextCache.getIfPresent(BOARD_ID);
+        assertThat(context.webhookRingBytes()).isGreaterThan(Constants.MAX_WEBHOOKS * 5_000L);
+        assertThat(boardContextCache.weightedSize()).isGreaterThan(emptyWeight + 60_000);
+    }
+
+    @Test
+    void evictsByBudget() {
+        var cache = new BoardContextCache(256 * 1024);
+        var webhooks = new WebhookCache(cache);
+        for (int board = 0; board < 20; board++) {
+            for (int i = 0; i < Constants.MAX_WEBHOOKS; i++) {
+                var webhook = createWebhook();
+                webhook.setBody("x".repeat(5_000));
+                webhooks.addWebhook("board-" + board, webhook);
+            }
+        }
+        cache.cleanUp();
+
+        assertThat(cache.weightedSize()).isLessThanOrEqualTo(256 * 1024);
+        assertThat(cache.size()).isLessThan(20);
+        assertThat(cache.stats().evictionWeight()).isPositive();
+    }
+
+    @Test
+    void keepsContextsWithSubscribers() {
+        var cache = new BoardContextCache(256 * 1024);
+        var webhooks = new WebhookCache(cache);
+        var subscribed = cache.context("board-0");
+        subscribed.subscribers().add(new SseSubscriber(60_000, 1, Runnable::run));
+        cache.reweigh(subscribed);
+        for (int board = 0; board < 20; board++) {
+            for (int i = 0; i < Constants.MAX_WEBHOOKS; i++) {
+                var webhook = createWebhook();
+                webhook.setBody("x".repeat(5_000));
+                webhooks.addWebhook("board-" + board, webhook);
+            }
+        }
+        cache.cleanUp();
+
+        assertThat(cache.size()).isLessThan(20);
+        assertThat(cache.getIfPresent("board-0")).isSameAs(subscribed);
+        assertThat(subscribed.subscribers()).hasSize(1);
+    }
+
+    private WebhookDto createWebhook() {
+        var dto = new WebhookDto();
+        dto.setId("webhook-1");
+        dto.setBoardId(BOARD_ID);
+        dto.setTimestamp(Instant.now());
+        return dto;
+    }
+}
@@ -0,0 +1,99 @@
+package dev.mockboard.cache;
+
+import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardContextSnapshot;
+import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.domain.MockRuleTable;
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardContextSnapshotTest {
+
+    private static final String BOARD_ID = "board-1";
+
+    @TempDir private Path dir;
+
+    private BoardContextCache boardContextCache;
+    private BoardCache boardCache;
+    private MockRuleCache mockRuleCache;
+    private WebhookCache webhookCache;
+
+    @BeforeEach
+    void setUp() {
+        boardContextCache = new BoardContextCache();
+        boardCache = new BoardCache(boardContextCache);
+        mockRuleCache = new MockRuleCache(boardContextCache);
+        webhookCache = new WebhookCache(boardContextCache);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        var now = Instant.now();
+        boardCache.put(BOARD_ID, BoardDto.builder().id(BOARD_ID).ownerToken("token").timestamp(now).build());
+        mockRuleCache.addMockRule(BOARD_ID, MockRuleDto.builder()
+                .id("rule-1").boardId(BOARD_ID).method("GET").path("/api/*").body("{\"ok\":true}")
+                .statusCode(200).delay(0).timestamp(now)
+                .build());
+        var webhook = new WebhookDto();
+        webhook.setId("webhook-1");
+        webhook.setBoardId(BOARD_ID);
+        webhook.setBody("ż".repeat(40_000));
+        webhook.setMatched(true);
+        webhook.setTimestamp(now);
+        webhookCache.addWebhook(BOARD_ID, webhook);
+
+        var path = dir.resolve("snapshot.bin");
+        assertThat(BoardContextSnapshot.write(path, boardContextCache.contexts())).isEqualTo(1);
+        var snapshot = BoardContextSnapshot.read(path);
+
+        assertThat(snapshot.entries()).hasSize(1);
+        var entry = snapshot.entries().getFirst();
+        assertThat(entry.board()).isEqualTo(boardCache.get(BOARD_ID).orElseThrow());
+        assertThat(entry.mockRules()).singleElement().satisfies(mockRule -> {
+            assertThat(mockRule.getPath()).isEqualTo("/api/*");
+            assertThat(mockRule.getTimestamp()).isEqualTo(now);
+            assertThat(mockRule.getHeaders()).isNull();
+        });
+        assertThat(entry.webhooks()).containsExactly(webhook);
+    }
+
+    @Test
+    void partsNotLoadedStayNull() throws IOException {
+        mockRuleCache.markEmpty(BOARD_ID);
+        mockRuleCache.put("unknown-board", MockRuleTable.UNKNOWN_BOARD);
+
+        var path = dir.resolve("snapshot.bin");
+        BoardContextSnapshot.write(path, boardContextCache.contexts());
+        var entries = BoardContextSnapshot.read(path).entries();
+
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.boardId()).isEqualTo(BOARD_ID);
+            assertThat(entry.board()).isNull();
+            assertThat(entry.mockRules()).isEmpty();
+            assertThat(entry.webhooks()).isNull();
+        });
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        var path = dir.resolve("snapshot.bin");
+        Files.write(path, List.of("not a snapshot"));
+
+        assertThatThrownBy(() -> BoardContextSnapshot.read(path)).isInstanceOf(IOException.class);
+    }
+}
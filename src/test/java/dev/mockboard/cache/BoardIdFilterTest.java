@@ -0,0 +1,64 @@
+package dev.mockboard.cache;
+
+import dev.mockboard.common.cache.BoardIdFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardIdFilterTest {
+
+    @Test
+    void passesEverythingBeforeInit() {
+        var filter = new BoardIdFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain("unknown-board")).isTrue();
+    }
+
+    @Test
+    void noFalseNegatives() {
+        var filter = new BoardIdFilter(1_000, 0.01);
+        var boardIds = randomIds(1_000);
+        filter.init(boardIds.subList(0, 500));
+        boardIds.subList(500, 1_000).forEach(filter::add);
+
+        assertThat(boardIds).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void removedBoardIsRejected() {
+        var filter = new BoardIdFilter(1_000, 0.01);
+        filter.init(List.of("board-1", "board-2"));
+
+        filter.remove("board-1");
+
+        assertThat(filter.mightContain("board-1")).isFalse();
+        assertThat(filter.mightContain("board-2")).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateWithinBounds() {
+        var filter = new BoardIdFilter(10_000, 0.01);
+        filter.init(randomIds(10_000));
+
+        for (var unknownId : randomIds(100_000)) {
+            if (filter.mightContain(unknownId)) {
+                filter.recordFalsePositive();
+            }
+        }
+
+        assertThat(filter.observedFalsePositiveRate()).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+
+    private static List<String> randomIds(int count) {
+        var ids = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}
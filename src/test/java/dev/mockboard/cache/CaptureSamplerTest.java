@@ -0,0 +1,61 @@
+package dev.mockboard.cache;
+
+import dev.mockboard.common.cache.CaptureSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptureSamplerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void capturesAllUnderFullRate() {
+        var sampler = new CaptureSampler(10, clock::get);
+
+        var captured = IntStream.range(0, 10).filter(i -> sampler.admit()).count();
+
+        assertThat(captured).isEqualTo(10);
+        var stats = sampler.stats();
+        assertThat(stats.sampling()).isFalse();
+        assertThat(stats.sampleEvery()).isEqualTo(1);
+        assertThat(stats.skipped()).isZero();
+    }
+
+    @Test
+    void samplesAboveFullRate() {
+        var sampler = new CaptureSampler(10, clock::get);
+        IntStream.range(0, 100).forEach(i -> sampler.admit());
+        nextSecond();
+
+        // 100 per second in the last window, every 10th is kept
+        var captured = IntStream.range(0, 100).filter(i -> sampler.admit()).count();
+
+        assertThat(captured).isEqualTo(10);
+        var stats = sampler.stats();
+        assertThat(stats.sampling()).isTrue();
+        assertThat(stats.sampleEvery()).isEqualTo(10);
+        assertThat(stats.requestsPerSecond()).isEqualTo(100);
+        assertThat(stats.requests()).isEqualTo(200);
+        assertThat(stats.captured() + stats.skipped()).isEqualTo(200);
+    }
+
+    @Test
+    void capturesAllAgainAfterQuietSecond() {
+        var sampler = new CaptureSampler(10, clock::get);
+        IntStream.range(0, 100).forEach(i -> sampler.admit());
+        nextSecond();
+        nextSecond();
+
+        assertThat(sampler.isSampling()).isFalse();
+        assertThat(IntStream.range(0, 10).allMatch(i -> sampler.admit())).isTrue();
+    }
+
+    private void nextSecond() {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    }
+}
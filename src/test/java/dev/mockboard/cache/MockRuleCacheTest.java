@@ -1,6 +1,8 @@
 package dev.mockboard.cache;
 
+import dev.mockboard.common.cache.BoardContextCache;
 import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.domain.MockRuleTable;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,7 @@ import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class MockRuleCacheTest {
 
@@ -17,7 +20,7 @@ class MockRuleCacheTest {
 
     @BeforeEach
     void setUp() {
-        mockRuleCache = new MockRuleCache();
+        mockRuleCache = new MockRuleCache(new BoardContextCache());
     }
 
     @Test
@@ -76,6 +79,39 @@ class MockRuleCacheTest {
         assertThat(result.getFirst().getId()).isEqualTo("id-2");
     }
 
+    @Test
+    void getMockRulesReturnsSnapshot() {
+        var older = createDto("id-1");
+        older.setTimestamp(Instant.now().minusSeconds(10));
+        mockRuleCache.addMockRule(API_KEY, createDto("id-2"));
+        mockRuleCache.addMockRule(API_KEY, older);
+
+        var snapshot = mockRuleCache.getMockRules(API_KEY);
+        assertThat(snapshot).extracting(MockRuleDto::getId).containsExactly("id-2", "id-1");
+        assertThat(mockRuleCache.getMockRules(API_KEY)).isSameAs(snapshot);
+        assertThatThrownBy(() -> snapshot.add(createDto("id-3"))).isInstanceOf(UnsupportedOperationException.class);
+
+        mockRuleCache.deleteMockRule(API_KEY, "id-1");
+        assertThat(mockRuleCache.getMockRules(API_KEY)).isNotSameAs(snapshot);
+        assertThat(snapshot).hasSize(2);
+    }
+
+    @Test
+    void everyChangePublishesNewVersion() {
+        mockRuleCache.addMockRule(API_KEY, createDto("id-1"));
+        var first = mockRuleCache.getMockRuleTable(API_KEY);
+
+        mockRuleCache.updateMockRule(API_KEY, createDto("id-1"));
+        var second = mockRuleCache.getMockRuleTable(API_KEY);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.version()).isGreaterThan(first.version());
+
+        mockRuleCache.deleteMockRule(API_KEY, "id-1");
+        assertThat(mockRuleCache.getMockRuleTable(API_KEY)).isSameAs(MockRuleTable.EMPTY);
+        assertThat(MockRuleTable.EMPTY.version()).isZero();
+    }
+
     private MockRuleDto createDto(String id) {
         var dto = new MockRuleDto();
         dto.setId(id);
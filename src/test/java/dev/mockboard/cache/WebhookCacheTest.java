@@ -1,7 +1,9 @@
 package dev.mockboard.cache;
 
 import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContextCache;
 import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.cache.WebhookRing;
 import dev.mockboard.common.domain.dto.WebhookDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,7 +22,7 @@ class WebhookCacheTest {
 
     @BeforeEach
     void setUp() {
-        webhookCache = new WebhookCache();
+        webhookCache = new WebhookCache(new BoardContextCache());
     }
 
     @Test
@@ -39,16 +41,16 @@ class WebhookCacheTest {
     @Test
     void addWebhookShouldUpdateOldest() {
         int maxWebhooks = Constants.MAX_WEBHOOKS;
+        var oldestId = "oldest-id";
+        var oldest = createDto(oldestId, Instant.now().minusSeconds(1000));
+        assertThat(webhookCache.addWebhook(API_KEY, oldest)).isFalse();
         for (int i = 0; i < maxWebhooks - 1; i++) {
-            webhookCache.addWebhook(API_KEY, createDto("" + i, Instant.now().minusSeconds(100)));
+            assertThat(webhookCache.addWebhook(API_KEY, createDto("" + i, Instant.now().minusSeconds(100)))).isFalse();
         }
 
-        var oldestId = "oldest-id";
-        webhookCache.addWebhook(API_KEY, createDto(oldestId, Instant.now().minusSeconds(1000)));
-
         var incomingWebhook = createDto("ignored-id", Instant.now().plusSeconds(500));
         incomingWebhook.setBody("Updated body");
-        webhookCache.addWebhook(API_KEY, incomingWebhook);
+        assertThat(webhookCache.addWebhook(API_KEY, incomingWebhook)).isTrue();
 
         var result = webhookCache.getWebhooks(API_KEY);
         assertThat(result).hasSize(maxWebhooks);
@@ -57,11 +59,26 @@ class WebhookCacheTest {
                 .hasSize(1)
                 .first()
                 .satisfies(d -> {
-                    assertThat(d.getId()).isEqualTo(oldestId);
+                    assertThat(d).isSameAs(incomingWebhook);
                     assertThat(d.getBody()).isEqualTo(incomingWebhook.getBody());
                     assertThat(d.getTimestamp()).isEqualTo(incomingWebhook.getTimestamp());
                 });
-        assertThat(result.getFirst().getTimestamp()).isEqualTo(incomingWebhook.getTimestamp());
+        assertThat(result.getFirst()).isSameAs(incomingWebhook);
+        // evicted capture was published already and is left untouched
+        assertThat(oldest.getBody()).isEqualTo("body");
+    }
+
+    @Test
+    void snapshotIsNewestFirst() {
+        var ring = new WebhookRing(3);
+        for (int i = 0; i < 5; i++) {
+            ring.add(createDto("" + i, Instant.now()));
+        }
+
+        var result = ring.snapshot();
+        assertThat(result).extracting(WebhookDto::getBody).containsExactly("body", "body", "body");
+        // 3 and 4 took over the ids of 0 and 1
+        assertThat(result).extracting(WebhookDto::getId).containsExactly("1", "0", "2");
     }
 
     @Test
@@ -73,13 +90,16 @@ class WebhookCacheTest {
 
         int maxThreads = 50;
         var completableFutures = IntStream.range(0, maxThreads)
-                .mapToObj(i -> CompletableFuture.runAsync(() -> {
-                    webhookCache.addWebhook(API_KEY, createDto("concurrent-" + i, Instant.now()));
-                })).toArray(CompletableFuture[]::new);
-        CompletableFuture.allOf(completableFutures).join();
+                .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                        webhookCache.addWebhook(API_KEY, createDto("concurrent-" + i, Instant.now()))))
+                .toList();
 
+        // every capture landed in the ring and took over the id of an evicted one, none got a row of its own
+        assertThat(completableFutures).allSatisfy(future -> assertThat(future.join()).isTrue());
         var result = webhookCache.getWebhooks(API_KEY);
         assertThat(result).hasSize(maxWebhooks);
+        assertThat(result).extracting(WebhookDto::getId)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, maxWebhooks).mapToObj(i -> "plain-" + i).toList());
     }
 
     private WebhookDto createDto(String id, Instant timestamp) {
@@ -0,0 +1,72 @@
+package dev.mockboard.common.db;
+
+import dev.mockboard.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DbCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final RuntimeException CONNECTION_FAILURE = new CannotGetJdbcConnectionException("Connection is not available");
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        var breaker = new DbCircuitBreaker(3, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        breaker.record(FAST, CONNECTION_FAILURE);
+        breaker.record(FAST, CONNECTION_FAILURE);
+        breaker.record(FAST, null);
+        breaker.record(FAST, CONNECTION_FAILURE);
+        breaker.record(FAST, CONNECTION_FAILURE);
+        assertThat(breaker.state()).isEqualTo(DbCircuitBreaker.State.CLOSED);
+
+        breaker.record(FAST, CONNECTION_FAILURE);
+
+        assertThat(breaker.state()).isEqualTo(DbCircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(breaker.health().getStatus()).isEqualTo(DbCircuitBreaker.DEGRADED);
+    }
+
+    @Test
+    void slowCallsCountAndOtherErrorsDoNot() {
+        var breaker = new DbCircuitBreaker(2, Duration.ofMinutes(1), Duration.ofMillis(100));
+        breaker.record(FAST, new DataIntegrityViolationException("duplicate key"));
+        breaker.record(FAST, new IllegalStateException("not a DB error"));
+        assertThat(breaker.isClosed()).isTrue();
+
+        breaker.record(Duration.ofMillis(200).toNanos(), null);
+        breaker.record(Duration.ofMillis(200).toNanos(), null);
+
+        assertThat(breaker.isClosed()).isFalse();
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThrough() {
+        var breaker = new DbCircuitBreaker(1, Duration.ZERO, Duration.ofSeconds(5));
+        breaker.record(FAST, CONNECTION_FAILURE);
+
+        breaker.acquire();
+        assertThat(breaker.state()).isEqualTo(DbCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(ServiceUnavailableException.class);
+
+        breaker.record(FAST, CONNECTION_FAILURE);
+        assertThat(breaker.state()).isEqualTo(DbCircuitBreaker.State.OPEN);
+
+        breaker.acquire();
+        breaker.record(FAST, null);
+        assertThat(breaker.state()).isEqualTo(DbCircuitBreaker.State.CLOSED);
+        assertThat(breaker.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void unavailableLooksAtCauses() {
+        assertThat(DbCircuitBreaker.isUnavailable(new IllegalStateException(CONNECTION_FAILURE))).isTrue();
+        assertThat(DbCircuitBreaker.isUnavailable(new IllegalStateException("other"))).isFalse();
+    }
+}
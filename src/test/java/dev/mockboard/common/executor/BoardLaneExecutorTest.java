@@ -0,0 +1,130 @@
+package dev.mockboard.common.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardLaneExecutorTest {
+
+    @Test
+    void keepsOrderPerBoard() throws InterruptedException {
+        var executor = new BoardLaneExecutor(4, 10_000, LaneOverflowPolicy.DROP);
+        var boards = List.of("board-1", "board-2", "board-3", "board-4", "board-5");
+        var seen = new ArrayList<List<Integer>>();
+        boards.forEach(board -> seen.add(Collections.synchronizedList(new ArrayList<>())));
+        var done = new CountDownLatch(boards.size() * 1_000);
+
+        for (int i = 0; i < 1_000; i++) {
+            var seq = i;
+            for (int b = 0; b < boards.size(); b++) {
+                var received = seen.get(b);
+                executor.execute(boards.get(b), () -> {
+                    received.add(seq);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        seen.forEach(received -> assertThat(received).isSorted().hasSize(1_000));
+        executor.stop();
+    }
+
+    @Test
+    void fullLaneAppliesPolicy() throws InterruptedException {
+        var dropping = new BoardLaneExecutor(1, 1, LaneOverflowPolicy.DROP);
+        var blocking = new BoardLaneExecutor(1, 1, LaneOverflowPolicy.BLOCK, Duration.ofSeconds(5));
+        var release = new CountDownLatch(1);
+        var ran = new AtomicInteger();
+        var laneThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        for (var executor : List.of(dropping, blocking)) {
+            var started = new CountDownLatch(1);
+            // occupies the worker, then fills the single slot of the lane
+            executor.execute("board-1", () -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+            executor.execute("board-1", ran::incrementAndGet);
+        }
+
+        dropping.execute("board-1", ran::incrementAndGet);
+        var blocked = Thread.ofPlatform().start(() -> blocking.execute("board-1", () -> {
+            laneThreads.add(Thread.currentThread());
+            ran.incrementAndGet();
+        }));
+        blocked.join(100);
+        assertThat(blocked.isAlive()).isTrue();
+
+        release.countDown();
+        blocked.join(TimeUnit.SECONDS.toMillis(5));
+        dropping.stop();
+        blocking.stop();
+        // the two queued tasks and the one that waited for space, the dropped one never ran
+        assertThat(ran.get()).isEqualTo(3);
+        assertThat(laneThreads).singleElement().isNotSameAs(blocked);
+    }
+
+    @Test
+    void batchesConsecutiveItems() throws InterruptedException {
+        var executor = new BoardLaneExecutor(1, 100, LaneOverflowPolicy.DROP);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var batches = Collections.synchronizedList(new ArrayList<List<Integer>>());
+        Consumer<List<Integer>> handler = batches::add;
+
+        executor.execute("board-1", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            executor.execute("board-" + i, i, handler);
+        }
+        // a plain task ends the batch
+        executor.execute("board-1", () -> {});
+        executor.execute("board-1", 3, handler);
+
+        release.countDown();
+        executor.stop();
+
+        assertThat(batches).containsExactly(List.of(0, 1, 2), List.of(3));
+    }
+
+    @Test
+    void stopRunsPendingTasks() {
+        var executor = new BoardLaneExecutor(2, 100, LaneOverflowPolicy.DROP);
+        var ran = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            executor.execute("board-" + i, ran::incrementAndGet);
+        }
+
+        executor.stop();
+
+        assertThat(ran.get()).isEqualTo(100);
+        assertThat(executor.pending()).isZero();
+        assertThat(executor.isRunning()).isFalse();
+
+        // submitted after stop, run once the worker is gone
+        executor.execute("board-1", ran::incrementAndGet);
+        assertThat(ran.get()).isEqualTo(101);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dev.mockboard.common.faker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakerValuePoolTest {
+
+    // long interval, refill rounds are triggered by the tests
+    private final FakerValuePool pool = new FakerValuePool(true, 4, 3, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        pool.stop();
+    }
+
+    @Test
+    void emptyRingFallsBackToGenerating() {
+        var value = pool.valueFor("user.fullName", () -> "Jane \"Q\" Doe");
+
+        assertThat(render(value)).isEqualTo("Jane \\\"Q\\\" Doe");
+        assertThat(pool.misses()).isEqualTo(1);
+        assertThat(pool.hits()).isZero();
+    }
+
+    @Test
+    void refilledValuesArePreEscaped() {
+        var counter = new AtomicInteger();
+        var value = pool.valueFor("user.fullName", () -> "\"" + counter.incrementAndGet() + "\"");
+
+        pool.refill();
+        assertThat(pool.pooledValues()).isEqualTo(3);
+
+        assertThat(render(value)).isEqualTo("\\\"1\\\"");
+        assertThat(render(value)).isEqualTo("\\\"2\\\"");
+        assertThat(pool.hits()).isEqualTo(2);
+        assertThat(pool.misses()).isZero();
+    }
+
+    @Test
+    void ringIsBounded() {
+        var value = pool.valueFor("content.word", () -> "word");
+
+        pool.refill();
+        pool.refill();
+        pool.refill();
+        assertThat(pool.pooledValues()).isEqualTo(4);
+
+        for (int i = 0; i < 5; i++) {
+            render(value);
+        }
+        assertThat(pool.hits()).isEqualTo(4);
+        assertThat(pool.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void systemKeysAreNotPooled() {
+        pool.valueFor("system.int", () -> "1");
+        pool.refill();
+
+        assertThat(pool.pooledValues()).isZero();
+    }
+
+    @Test
+    void disabledPool() {
+        var disabled = new FakerValuePool(false, 4, 3, 60_000);
+        var value = disabled.valueFor("user.fullName", () -> "Jane");
+        disabled.refill();
+
+        assertThat(render(value)).isEqualTo("Jane");
+        assertThat(disabled.pooledValues()).isZero();
+        assertThat(disabled.misses()).isZero();
+    }
+
+    @Test
+    void compiledTemplateUsesPool() {
+        var processor = new TemplateFakerProcessor(pool);
+        var template = processor.compile("{\"name\": \"{{user.fullName}}\", \"n\": {{system.int}}}");
+
+        pool.refill();
+        assertThat(template.render()).doesNotContain("{{");
+        assertThat(pool.hits()).isEqualTo(1);
+    }
+
+    private static String render(FakerValue value) {
+        var sb = new StringBuilder();
+        value.appendTo(sb);
+        return sb.toString();
+    }
+}
@@ -1,8 +1,12 @@
 package dev.mockboard.common.faker;
 
+import org.apache.commons.text.StringSubstitutor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.core.io.JsonStringEncoder;
 
 import java.util.UUID;
 
@@ -10,12 +14,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class TemplateFakerProcessorTest {
 
+    // deterministic value with chars that need JSON escaping
+    private static final String FIXED_KEY = "test.fixed";
+
+    @BeforeAll
+    static void registerFixedKey() {
+        TemplateFakerDictionary.initializeDictionary();
+        TemplateFakerDictionary.getDictionary().put(FIXED_KEY, () -> "Jane \"Q\" Doe\n");
+    }
+
+    @AfterAll
+    static void removeFixedKey() {
+        TemplateFakerDictionary.getDictionary().remove(FIXED_KEY);
+    }
+
     private final TemplateFakerProcessor engine = new TemplateFakerProcessor();
 
     @Test
     void replaceValidTokens() {
         var input = "{\"name\": \"{{user.fullName}}\", \"email\": \"{{user.email}}\"}";
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result)
                 .doesNotContain("{{user.fullName}}")
                 .doesNotContain("{{user.email}}")
@@ -31,7 +49,7 @@ class TemplateFakerProcessorTest {
             "{{       user.fullName       }}"
     })
     void handleWhitespaces(String token) {
-        var result = engine.applyFaker(token);
+        var result = render(token);
 
         assertThat(result)
                 .doesNotContain("{{")
@@ -48,22 +66,22 @@ class TemplateFakerProcessorTest {
             }
             """;
 
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result).isEqualTo(input);
     }
 
     @Test
     void unknownTokens() {
         var input = "Hello {{non.existent}}";
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result).isEqualTo("Hello [unknown: non.existent]");
     }
 
     @Test
     void edgeCases() {
-        assertThat(engine.applyFaker(null)).isNull();
-        assertThat(engine.applyFaker("")).isEmpty();
-        assertThat(engine.applyFaker("   ")).isEqualTo("   ");
+        assertThat(render(null)).isEmpty();
+        assertThat(render("")).isEmpty();
+        assertThat(render("   ")).isEqualTo("   ");
     }
 
     @Test
@@ -71,14 +89,14 @@ class TemplateFakerProcessorTest {
         var longKey = "z".repeat(50);
         var input = "{{" + longKey + "}}";
 
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result).isEqualTo(input);
     }
 
     @Test
     void multipleIdenticalTokens() {
         var input = "{{user.fullName}}{{user.fullName}}";
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result)
                 .doesNotContain("{")
                 .doesNotContain("}")
@@ -88,7 +106,7 @@ class TemplateFakerProcessorTest {
     @Test
     void extraCurlyBraces() {
         var input = "{{{user.fullName}}}";
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result)
                 .isEqualTo(input);
     }
@@ -96,7 +114,7 @@ class TemplateFakerProcessorTest {
     @Test
     void systemTemplates() {
         var input = "{{system.int}}, {{system.long}}, {{system.double}}, {{system.bool}}, {{system.uuid}}";
-        var result = engine.applyFaker(input);
+        var result = render(input);
         assertThat(result)
                 .doesNotContain("{{")
                 .doesNotContain("}}")
@@ -108,6 +126,71 @@ class TemplateFakerProcessorTest {
         assertThat(Long.parseLong(parts[1].trim())).isInstanceOf(Long.class);
         assertThat(Double.parseDouble(parts[2].trim())).isInstanceOf(Double.class);
         assertThat(parts[3].trim()).matches("true|false");
-        assertThat(UUID.fromString(parts[4].trim())).isNotNull();
+        var uuid = UUID.fromString(parts[4].trim());
+        assertThat(uuid.version()).isEqualTo(4);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void compiledTemplateKeepsLiterals() {
+        var template = engine.compile("{\"a\": \"{{user.fullName}}\", \"b\": \"{{non.existent}}\"}");
+
+        assertThat(template.isStatic()).isFalse();
+        assertThat(template.render())
+                .startsWith("{\"a\": \"")
+                .endsWith("\", \"b\": \"[unknown: non.existent]\"}");
+        assertThat(engine.compile("{{non.existent}}").isStatic()).isTrue();
+    }
+
+    @Test
+    void compiledTemplateEscapesValues() {
+        var result = render("{{" + FIXED_KEY + "}}");
+        assertThat(result).isEqualTo("Jane \\\"Q\\\" Doe\\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{{test.fixed}}{{test.fixed}}",
+            "${{test.fixed}}",
+            "$${{test.fixed}}",
+            "${{{test.fixed}}}",
+            "{{test.fixed:-default}}",
+            "{{bad\":-default}}",
+            "{{bad\":-a{}}{test.fixed}}",
+            "{{bad\":-x$}}{{test.fixed}}",
+            "{{}}",
+            "{{ }}{{test.fixed}}}}",
+            "{{a{{test.fixed}}}}",
+            "{{{{test.fixed}}}}",
+            "{{test.fixed",
+            "test.fixed}}{{",
+            "{\"a\": \"{{test.fixed}}\", \"b\": \"{{ non.existent }}\"}",
+            "\uE000{{test.fixed}}\uE001",
+            "${{{{test.fixed}}",
+            "{{bad\":-{{test.fixed}}}}",
+            "{{ test.fixed :-x}}$",
+            "a$${{x}}}}{{test.fixed}}"
+    })
+    void sameOutputAsPerRequestSubstitution(String input) {
+        assertThat(render(input)).isEqualTo(legacySubstitutor().replace(input));
+    }
+
+    private String render(String input) {
+        return engine.compile(input).render();
+    }
+
+    // substitution as it was done on every request before templates were compiled
+    private static StringSubstitutor legacySubstitutor() {
+        var substitutor = new StringSubstitutor(key -> {
+            var trimmedKey = key.trim();
+            if (trimmedKey.length() > 48 || trimmedKey.chars().anyMatch(c -> "\"\n\r:{}".indexOf(c) >= 0)) return null;
+            var supplier = TemplateFakerDictionary.getDictionary().get(trimmedKey);
+            if (supplier != null) return new String(JsonStringEncoder.getInstance().quoteAsCharArray(supplier.get()));
+            return "[unknown: " + trimmedKey + "]";
+        });
+        substitutor.setVariablePrefix("{{");
+        substitutor.setVariableSuffix("}}");
+        substitutor.setEnableSubstitutionInVariables(false);
+        return substitutor;
     }
-}
\ No newline at end of file
+}
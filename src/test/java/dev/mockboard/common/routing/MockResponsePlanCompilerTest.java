@@ -0,0 +1,88 @@
+package dev.mockboard.common.routing;
+
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.faker.TemplateFakerProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MockResponsePlanCompilerTest {
+
+    private final MockResponsePlanCompiler compiler = new MockResponsePlanCompiler(JsonMapper.builder().build(), new TemplateFakerProcessor());
+
+    @Test
+    void staticBody() {
+        var plan = compiler.compile(createRule("{\"name\":\"Jürgen\"}", null));
+
+        assertThat(plan.isStatic()).isTrue();
+        assertThat(plan.staticBody()).isEqualTo("{\"name\":\"Jürgen\"}".getBytes(StandardCharsets.UTF_8));
+        assertThat(plan.statusCode()).isEqualTo(201);
+        assertThat(plan.delay()).isEqualTo(50);
+        assertThat(plan.headers().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void templatedBody() {
+        var plan = compiler.compile(createRule("{\"name\":\"{{user.fullName}}\"}", null));
+
+        assertThat(plan.isStatic()).isFalse();
+        assertThat(plan.template().source()).isEqualTo("{\"name\":\"{{user.fullName}}\"}");
+    }
+
+    @Test
+    void unknownPlaceholdersAreStatic() {
+        var plan = compiler.compile(createRule("{\"name\":\"{{non.existent}}\"}", null));
+
+        assertThat(plan.isStatic()).isTrue();
+        assertThat(plan.staticBody()).asString(StandardCharsets.UTF_8).isEqualTo("{\"name\":\"[unknown: non.existent]\"}");
+    }
+
+    @Test
+    void emptyBody() {
+        var plan = compiler.compile(createRule("", null));
+
+        assertThat(plan.staticBody()).isEqualTo("{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parsedHeaders() {
+        var plan = compiler.compile(createRule(null, "{\"Content-Type\":\"text/plain\",\"X-Trace\":\"abc\"}"));
+
+        assertThat(plan.headers().getFirst(HttpHeaders.CONTENT_TYPE)).isEqualTo("text/plain");
+        assertThat(plan.headers().getFirst("X-Trace")).isEqualTo("abc");
+        assertThatThrownBy(() -> plan.headers().add("X-Other", "1"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void headersWithoutContentTypeDefaultToJson() {
+        var plan = compiler.compile(createRule(null, "{\"X-Trace\":\"abc\"}"));
+
+        assertThat(plan.headers().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(plan.headers().getFirst("X-Trace")).isEqualTo("abc");
+    }
+
+    @Test
+    void invalidHeadersFallbackToJson() {
+        var plan = compiler.compile(createRule(null, "not-json"));
+
+        assertThat(plan.headers().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    private static MockRuleDto createRule(String body, String headers) {
+        return MockRuleDto.builder()
+                .method("GET")
+                .path("/api/test")
+                .body(body)
+                .headers(headers)
+                .statusCode(201)
+                .delay(50)
+                .build();
+    }
+}
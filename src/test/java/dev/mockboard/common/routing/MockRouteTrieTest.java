@@ -0,0 +1,93 @@
+package dev.mockboard.common.routing;
+
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockRouteTrieTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/v1/users,             /api/v1/users,              true",
+            "/users,                    /api/v1/users,              false",
+            "/api/v1/users,             /api/v1/users/123,          false",
+            "/api/v1/users/*/profile,   /api/v1/users/123/profile,  true",
+            "/api/v1/users/*/profile,   /api/v1/users/hello/profile, true",
+            "/api/v1/users/*/profile,   /api/v1/users/profile,      false",
+            "/api/v1/users/*/profile,   /api/v1/users/1/2/profile,  false",
+            "/files/*,                  /files/image.png,           true",
+            "/files/*,                  /files/data.csv,            true",
+            "/files/*,                  /files/users/logo.png,      false",
+            "/api/v1.0/users,           /api/v1.0/users,            true",
+            "/api/v1.0/users,           /api/v1v0/users,            false",
+            "/api/*/users/*/data,       /api/v1/users/123/data,     true",
+            "/api/*/users/*/data,       /api/v1/users/123/info,     false",
+            "/*/test/*,                 /123/test/456,              true",
+            "/*/test/*,                 /123/test,                  false",
+            "/api/**/hello,             /api/literally/star/hello,  false",
+            "/api/*/*/*/folder,         /api/v1/2026/01/folder,     true",
+            "/api/user-*,               /api/user-42,               true",
+            "/api/user-*,               /api/user-,                 false",
+            "/api/*-*,                  /api/a-b-c,                 true",
+            "/api/Users,                /api/users,                 false"
+    })
+    void matchCases(String mockPath, String requestPath, boolean expectedResult) {
+        var rule = createRule("1", "GET", mockPath);
+        var trie = MockRouteTrie.build(List.of(rule));
+        assertThat(trie.match("GET", requestPath) == rule).isEqualTo(expectedResult);
+    }
+
+    @Test
+    void methodIgnoresCase() {
+        var rule = createRule("1", "post", "/api/test");
+        var trie = MockRouteTrie.build(List.of(rule));
+        assertThat(trie.match("POST", "/api/test")).isEqualTo(rule);
+        assertThat(trie.match("GET", "/api/test")).isNull();
+    }
+
+    @Test
+    void fewestWildcardsWin() {
+        var wildcard = createRule("wildcard", "GET", "/api/*/profile");
+        var exact = createRule("exact", "GET", "/api/123/profile");
+        var trie = MockRouteTrie.build(List.of(wildcard, exact));
+        assertThat(trie.match("GET", "/api/123/profile")).isEqualTo(exact);
+        assertThat(trie.match("GET", "/api/456/profile")).isEqualTo(wildcard);
+    }
+
+    @Test
+    void longestPathWinsOnEqualWildcards() {
+        var shorter = createRule("shorter", "GET", "/a/*");
+        var longer = createRule("longer", "GET", "/a/user-*");
+        var trie = MockRouteTrie.build(List.of(shorter, longer));
+        assertThat(trie.match("GET", "/a/user-1")).isEqualTo(longer);
+        assertThat(trie.match("GET", "/a/other")).isEqualTo(shorter);
+    }
+
+    @Test
+    void firstRuleWinsOnTie() {
+        var first = createRule("first", "GET", "/a/*");
+        var second = createRule("second", "GET", "/*/b");
+        var duplicate = createRule("duplicate", "GET", "/a/*");
+        var trie = MockRouteTrie.build(List.of(first, second, duplicate));
+        assertThat(trie.match("GET", "/a/b")).isEqualTo(first);
+    }
+
+    @Test
+    void emptyTrie() {
+        assertThat(MockRouteTrie.build(List.of()).match("GET", "/api")).isNull();
+        assertThat(MockRouteTrie.EMPTY.match("GET", "/api")).isNull();
+    }
+
+    private MockRuleDto createRule(String id, String method, String path) {
+        var dto = new MockRuleDto();
+        dto.setId(id);
+        dto.setMethod(method);
+        dto.setPath(path);
+        return dto;
+    }
+}
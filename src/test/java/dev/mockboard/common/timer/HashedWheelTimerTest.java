@@ -0,0 +1,88 @@
+package dev.mockboard.common.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, 8);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void neverFiresEarly() throws InterruptedException {
+        var latch = new CountDownLatch(1);
+        var firedAfter = new AtomicLong();
+        var start = System.nanoTime();
+
+        timer.schedule(() -> {
+            firedAfter.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            latch.countDown();
+        }, 150);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAfter.get()).isGreaterThanOrEqualTo(150);
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    void delaysLongerThanOneRound() throws InterruptedException {
+        // 8 buckets * 10ms = 80ms per round
+        var order = new ConcurrentLinkedQueue<Integer>();
+        var latch = new CountDownLatch(3);
+
+        timer.schedule(() -> { order.add(250); latch.countDown(); }, 250);
+        timer.schedule(() -> { order.add(30); latch.countDown(); }, 30);
+        timer.schedule(() -> { order.add(170); latch.countDown(); }, 170);
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(30, 170, 250);
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws InterruptedException {
+        var fired = new AtomicBoolean();
+        var timeout = timer.schedule(() -> fired.set(true), 30);
+
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timer.pending()).isZero();
+
+        Thread.sleep(100);
+        assertThat(fired).isFalse();
+        assertThat(timeout.cancel()).isFalse();
+    }
+
+    @Test
+    void stopFlushesPendingTasks() {
+        var fired = new AtomicBoolean();
+        timer.schedule(() -> fired.set(true), 10_000);
+
+        timer.stop();
+
+        assertThat(fired).isTrue();
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    void scheduleAfterStopRunsRightAway() {
+        var fired = new AtomicBoolean();
+        timer.stop();
+
+        var timeout = timer.schedule(() -> fired.set(true), 10_000);
+
+        assertThat(fired).isTrue();
+        assertThat(timeout.isDone()).isTrue();
+        assertThat(timer.pending()).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package dev.mockboard.common.validator;
+
+import dev.mockboard.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestMetadataValidatorTest {
+
+    private static final String BOARD_ID = "board-123";
+
+    private final RequestMetadataValidator validator = new RequestMetadataValidator(JsonMapper.builder().build());
+
+    @Test
+    void rawBodyIsKept() {
+        var body = "{\"name\":\"Jürgen\",\"tags\":[1,2,{\"a\":null}]}";
+        var metadata = validator.validateAndGet(BOARD_ID, request(body));
+
+        assertThat(metadata.requestBody()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(metadata.mockPath()).isEqualTo("/api/test");
+    }
+
+    @Test
+    void headersAndUrlAreEncodedFromRawCapture() {
+        var request = request("{}");
+        request.addHeader("X-Quote", "say \"hi\"");
+        request.setServerPort(8000);
+        request.setQueryString("a=1");
+
+        var metadata = validator.validateAndGet(BOARD_ID, request);
+
+        assertThat(metadata.headersJson()).isEqualTo("{\"Content-Type\":\"application/json\",\"X-Quote\":\"say \\\"hi\\\"\"}");
+        assertThat(metadata.fullUrl()).isEqualTo(request.getRequestURL().toString());
+        assertThat(metadata.queryParams()).isEqualTo("a=1");
+    }
+
+    @Test
+    void emptyAndBlankBodies() {
+        assertThat(validator.validateAndGet(BOARD_ID, request("")).requestBody()).isEmpty();
+        assertThat(validator.validateAndGet(BOARD_ID, request("  \n ")).requestBody()).hasSize(4);
+    }
+
+    @Test
+    void invalidJsonIsRejected() {
+        assertThatThrownBy(() -> validator.validateAndGet(BOARD_ID, request("{\"name\":")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid JSON payload");
+        assertThatThrownBy(() -> validator.validateAndGet(BOARD_ID, request("{} {}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid JSON payload");
+    }
+
+    @Test
+    void payloadTooLarge() {
+        var body = "\"" + "a".repeat(Constants.MAX_BODY_LENGTH) + "\"";
+        assertThatThrownBy(() -> validator.validateAndGet(BOARD_ID, request(body)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pooledBufferDoesNotLeakIntoNextRequest() {
+        validator.validateAndGet(BOARD_ID, request("{\"long\":\"" + "x".repeat(200) + "\"}"));
+        var metadata = validator.validateAndGet(BOARD_ID, request("[1]"));
+
+        assertThat(metadata.requestBody()).asString(StandardCharsets.UTF_8).isEqualTo("[1]");
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        var request = new MockHttpServletRequest("POST", "/m/" + BOARD_ID + "/api/test");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package dev.mockboard.config.sse;
+
+import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContextCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseManagerTest {
+
+    private static final String BOARD_ID = "board-123";
+
+    private BoardContextCache boardContextCache;
+    private SseManager sseManager;
+
+    @BeforeEach
+    void setUp() {
+        boardContextCache = new BoardContextCache();
+        sseManager = new SseManager(boardContextCache, new ObjectMapper());
+    }
+
+    @Test
+    void broadcastSharesOneFrame() {
+        var context = boardContextCache.context(BOARD_ID);
+        var first = new RecordingSubscriber(4, Runnable::run);
+        var second = new RecordingSubscriber(4, Runnable::run);
+        context.subscribers().addAll(List.of(first, second));
+
+        sseManager.broadcast(context, Map.of("id", "webhook-1"));
+        sseManager.broadcast(context, Map.of("id", "webhook-2"));
+
+        assertThat(first.sent).hasSize(2);
+        assertThat(second.sent.getFirst()).isSameAs(first.sent.getFirst());
+        assertThat(text(first.sent.getFirst()))
+                .isEqualTo("event:" + Constants.SSE_EMITTER_EVENT_WEBHOOK + "\nid:1\ndata:{\"id\":\"webhook-1\"}\n\n");
+        assertThat(text(first.sent.get(1))).contains("\nid:2\n");
+    }
+
+    @Test
+    void slowSubscriberDropped() {
+        var context = boardContextCache.context(BOARD_ID);
+        // the drain never runs, frames stay queued
+        var pendingDrains = new ArrayList<Runnable>();
+        var slow = new RecordingSubscriber(2, pendingDrains::add);
+        var fast = new RecordingSubscriber(2, Runnable::run);
+        context.subscribers().addAll(List.of(slow, fast));
+
+        for (var i = 0; i < 3; i++) {
+            sseManager.broadcast(context, Map.of("id", "webhook-" + i));
+        }
+
+        assertThat(context.subscribers()).containsExactly(fast);
+        assertThat(fast.sent).hasSize(3);
+        assertThat(pendingDrains).hasSize(1);
+        pendingDrains.getFirst().run();
+        assertThat(slow.sent).isEmpty();
+    }
+
+    private static String text(Set<DataWithMediaType> frame) {
+        return new String((byte[]) frame.iterator().next().getData(), StandardCharsets.UTF_8);
+    }
+
+    private static class RecordingSubscriber extends SseSubscriber {
+
+        private final List<Set<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+
+        RecordingSubscriber(int capacity, Executor sendExecutor) {
+            super(1_000, capacity, sendExecutor);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sent.add(items);
+        }
+    }
+}
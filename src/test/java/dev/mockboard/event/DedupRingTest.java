@@ -0,0 +1,127 @@
+package dev.mockboard.event;
+
+import dev.mockboard.repository.model.Webhook;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DedupRingTest {
+
+    @Test
+    void mergesPendingEventsInPlace() {
+        var ring = new DedupRing<Webhook>(4, OverflowPolicy.DROP);
+        var updated = createWebhook("webhook-1");
+
+        assertThat(ring.add(DomainEvent.create(createWebhook("webhook-1"), "webhook-1", Webhook.class))).isTrue();
+        assertThat(ring.add(DomainEvent.create(createWebhook("webhook-2"), "webhook-2", Webhook.class))).isTrue();
+        assertThat(ring.add(DomainEvent.update(updated, "webhook-1", Webhook.class))).isTrue();
+
+        assertThat(ring.size()).isEqualTo(2);
+        assertThat(ring.merged()).isEqualTo(1);
+        var batch = ring.drain(10);
+        assertThat(batch).extracting(DomainEvent::getEntityId).containsExactly("webhook-1", "webhook-2");
+        assertThat(batch.getFirst().getType()).isEqualTo(EventType.CREATE);
+        assertThat(batch.getFirst().getEntity()).isSameAs(updated);
+    }
+
+    @Test
+    void rejectsNewEntitiesWhenFull() {
+        var ring = new DedupRing<Webhook>(2, OverflowPolicy.DROP);
+        ring.add(DomainEvent.create(createWebhook("webhook-1"), "webhook-1", Webhook.class));
+        ring.add(DomainEvent.create(createWebhook("webhook-2"), "webhook-2", Webhook.class));
+
+        assertThat(ring.add(DomainEvent.create(createWebhook("webhook-3"), "webhook-3", Webhook.class))).isFalse();
+        // a pending entity still takes updates
+        assertThat(ring.add(DomainEvent.update(createWebhook("webhook-2"), "webhook-2", Webhook.class))).isTrue();
+
+        assertThat(ring.drain(1)).extracting(DomainEvent::getEntityId).containsExactly("webhook-1");
+        assertThat(ring.add(DomainEvent.create(createWebhook("webhook-3"), "webhook-3", Webhook.class))).isTrue();
+        assertThat(ring.drain(10)).extracting(DomainEvent::getEntityId).containsExactly("webhook-2", "webhook-3");
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void sampleRejectsBeforeFull() {
+        var ring = new DedupRing<Webhook>(1_000, OverflowPolicy.SAMPLE);
+        var admitted = 0;
+        for (int i = 0; i < 1_100; i++) {
+            if (ring.add(DomainEvent.create(createWebhook("webhook-" + i), "webhook-" + i, Webhook.class))) {
+                admitted++;
+            }
+        }
+
+        assertThat(admitted).isEqualTo(ring.size());
+        assertThat(ring.size()).isBetween(750, 999);
+    }
+
+    @Test
+    void concurrentProducersSingleConsumer() throws Exception {
+        var ring = new DedupRing<Webhook>(1_024, OverflowPolicy.DROP);
+        var producers = 8;
+        var perProducer = 5_000;
+        var drained = new HashSet<String>();
+        // asserted after the join, a failing assert in the consumer would leave the producers waiting on a full ring
+        var duplicates = new ArrayList<String>();
+        var done = new AtomicBoolean();
+        var start = new CountDownLatch(1);
+
+        var consumer = Thread.ofPlatform().start(() -> {
+            while (!done.get() || ring.size() > 0) {
+                var batch = ring.drain(256);
+                if (batch.isEmpty()) {
+                    Thread.yield();
+                }
+                for (var event : batch) {
+                    if (!drained.add(event.getEntityId())) {
+                        duplicates.add(event.getEntityId());
+                    }
+                }
+            }
+        });
+        var executor = Executors.newFixedThreadPool(producers);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int p = 0; p < producers; p++) {
+                var producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        var id = producer + "-" + i;
+                        // full ring: back off until the consumer made room
+                        while (!ring.add(DomainEvent.create(createWebhook(id), id, Webhook.class))) {
+                            LockSupport.parkNanos(10_000);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            done.set(true);
+        }
+
+        assertThat(consumer.join(Duration.ofSeconds(30))).as("consumer finished").isTrue();
+        assertThat(duplicates).isEmpty();
+        assertThat(drained).hasSize(producers * perProducer);
+    }
+
+    private Webhook createWebhook(String id) {
+        var webhook = new Webhook();
+        webhook.setId(id);
+        return webhook;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.mockboard.event;
+
+import dev.mockboard.repository.model.Webhook;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventQueueTest {
+
+    @Test
+    void dropCountsRejectedEvents() {
+        var eventQueue = new EventQueue(1, OverflowPolicy.DROP);
+        eventQueue.publish(createEvent("webhook-1"));
+        eventQueue.publish(createEvent("webhook-2"));
+
+        assertThat(eventQueue.size(Webhook.class)).isEqualTo(1);
+        assertThat(eventQueue.dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void spillWritesPendingOnPublishingThread() {
+        var eventQueue = new EventQueue(1, OverflowPolicy.SPILL);
+        var spilled = new StringBuilder();
+        eventQueue.onSpill(Webhook.class, () -> eventQueue.drain(Webhook.class, 10)
+                .forEach(event -> spilled.append(event.getEntityId())));
+
+        eventQueue.publish(createEvent("webhook-1"));
+        eventQueue.publish(createEvent("webhook-2"));
+
+        assertThat(spilled.toString()).isEqualTo("webhook-1");
+        assertThat(eventQueue.drain(Webhook.class, 10)).extracting(DomainEvent::getEntityId).containsExactly("webhook-2");
+        assertThat(eventQueue.dropped()).isZero();
+    }
+
+    @Test
+    void publishListenerSeesAdmittedEvents() {
+        var eventQueue = new EventQueue(1, OverflowPolicy.DROP);
+        var published = new StringBuilder();
+        eventQueue.onPublish(Webhook.class, event -> published.append(event.getEntityId()));
+
+        eventQueue.publish(createEvent("webhook-1"));
+        eventQueue.publish(createEvent("webhook-2"));
+
+        assertThat(published.toString()).isEqualTo("webhook-1");
+    }
+
+    private DomainEvent<Webhook> createEvent(String id) {
+        var webhook = new Webhook();
+        webhook.setId(id);
+        return DomainEvent.create(webhook, id, Webhook.class);
+    }
+}
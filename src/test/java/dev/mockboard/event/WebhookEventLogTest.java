@@ -0,0 +1,143 @@
+package dev.mockboard.event;
+
+import dev.mockboard.repository.model.Webhook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookEventLogTest {
+
+    private static final int SEGMENT_BYTES = 4 * 1024;
+
+    @TempDir private Path dir;
+
+    @Test
+    void replaysAppendedEvents() throws IOException {
+        var now = Instant.now();
+        var eventLog = new WebhookEventLog(dir, SEGMENT_BYTES);
+        var webhook = createWebhook("webhook-1", now);
+        webhook.setBody("ż".repeat(3_000));
+        eventLog.append(DomainEvent.create(webhook, "webhook-1", Webhook.class));
+        eventLog.append(DomainEvent.update(createWebhook("webhook-2", now), "webhook-2", Webhook.class));
+        eventLog.close();
+
+        var events = new WebhookEventLog(dir, SEGMENT_BYTES).replay();
+
+        assertThat(events).extracting(DomainEvent::getType).containsExactly(EventType.CREATE, EventType.UPDATE);
+        assertThat(events.getFirst().getEntity()).satisfies(replayed -> {
+            assertThat(replayed).isEqualTo(webhook);
+            assertThat(replayed.getBody()).isEqualTo(webhook.getBody());
+            assertThat(replayed.getStatusCode()).isEqualTo(200);
+            assertThat(replayed.getQueryParams()).isNull();
+        });
+        // the 6 KB record got a segment of its own
+        assertThat(Files.list(dir)).hasSize(2);
+    }
+
+    @Test
+    void commitDeletesSegmentsBeforeMark() throws IOException {
+        var eventLog = new WebhookEventLog(dir, SEGMENT_BYTES);
+        eventLog.append(createEvent("webhook-1"));
+        var mark = eventLog.mark();
+        eventLog.append(createEvent("webhook-2"));
+
+        eventLog.commit(mark);
+        eventLog.close();
+
+        assertThat(eventLog.segments()).isEqualTo(1);
+        assertThat(new WebhookEventLog(dir, SEGMENT_BYTES).replay())
+                .extracting(DomainEvent::getEntityId)
+                .containsExactly("webhook-2");
+    }
+
+    @Test
+    void readsClosedSegments() throws IOException {
+        var eventLog = new WebhookEventLog(dir, SEGMENT_BYTES);
+        eventLog.append(createEvent("webhook-1"));
+        eventLog.append(createEvent("webhook-2"));
+        var mark = eventLog.mark();
+        eventLog.append(createEvent("webhook-3"));
+
+        var segments = eventLog.segmentsBefore(mark);
+
+        assertThat(segments).hasSize(1);
+        assertThat(eventLog.read(segments.getFirst()))
+                .extracting(DomainEvent::getEntityId)
+                .containsExactly("webhook-1", "webhook-2");
+        eventLog.close();
+    }
+
+    @Test
+    void appendsAfterReplayGoToNewSegment() throws IOException {
+        var eventLog = new WebhookEventLog(dir, SEGMENT_BYTES);
+        eventLog.append(createEvent("webhook-1"));
+        eventLog.close();
+
+        var restarted = new WebhookEventLog(dir, SEGMENT_BYTES);
+        assertThat(restarted.replay()).hasSize(1);
+        var mark = restarted.mark();
+        restarted.append(createEvent("webhook-2"));
+        restarted.commit(mark);
+        restarted.close();
+
+        assertThat(new WebhookEventLog(dir, SEGMENT_BYTES).replay())
+                .extracting(DomainEvent::getEntityId)
+                .containsExactly("webhook-2");
+    }
+
+    @Test
+    void tornRecordEndsSegment() throws IOException {
+        var eventLog = new WebhookEventLog(dir, SEGMENT_BYTES);
+        eventLog.append(createEvent("webhook-1"));
+        eventLog.append(createEvent("webhook-2"));
+        eventLog.close();
+
+        Path segment;
+        try (var files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            var second = Integer.BYTES * 2 + header.flip().getInt();
+            header.clear();
+            channel.read(header, second);
+            // flips the last payload byte of the second record, as a write cut short would leave it
+            var last = second + Integer.BYTES * 2 + header.flip().getInt() - 1;
+            var value = ByteBuffer.allocate(1);
+            channel.read(value, last);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~value.get(0)}), last);
+        }
+
+        assertThat(new WebhookEventLog(dir, SEGMENT_BYTES).replay())
+                .extracting(DomainEvent::getEntityId)
+                .containsExactly("webhook-1");
+    }
+
+    private DomainEvent<Webhook> createEvent(String id) {
+        return DomainEvent.create(createWebhook(id, Instant.now()), id, Webhook.class);
+    }
+
+    private Webhook createWebhook(String id, Instant timestamp) {
+        return Webhook.builder()
+                .id(id)
+                .boardId("board-1")
+                .method("POST")
+                .path("/api/events")
+                .fullUrl("http://localhost/m/board-1/api/events")
+                .statusCode(200)
+                .matched(true)
+                .timestamp(timestamp)
+                .processingTimeMs(2)
+                .build();
+    }
+}
@@ -2,8 +2,9 @@ package dev.mockboard.service;
 
 import dev.mockboard.Constants;
 import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardIdFilter;
 import dev.mockboard.common.cache.MockRuleCache;
-import dev.mockboard.common.cache.WebhookCache;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.exception.NotFoundException;
 import dev.mockboard.repository.BoardRepository;
@@ -14,9 +15,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,8 +34,9 @@ class BoardServiceMockTest {
     @Mock private ModelMapper modelMapper;
     @Mock private BoardRepository boardRepository;
     @Mock private BoardCache boardCache;
+    @Mock private BoardIdFilter boardIdFilter;
     @Mock private MockRuleCache mockRuleCache;
-    @Mock private WebhookCache webhookCache;
+    @Mock private BoardContextCache boardContextCache;
 
     @InjectMocks private BoardService boardService;
 
@@ -59,6 +64,8 @@ class BoardServiceMockTest {
 
         verify(boardRepository).save(any(Board.class));
         verify(boardCache).put(eq(board.getId()), any(BoardDto.class));
+        verify(mockRuleCache).markEmpty(board.getId());
+        verify(boardIdFilter).add(board.getId());
     }
 
     @Test
@@ -69,7 +76,7 @@ class BoardServiceMockTest {
                 .ownerToken("token-abc")
                 .build();
 
-        when(boardCache.get(boardId)).thenReturn(Optional.of(boardDto));
+        when(boardCache.get(eq(boardId), any())).thenReturn(boardDto);
 
         var result = boardService.getBoardDto(boardId);
         assertThat(result).isEqualTo(boardDto);
@@ -90,21 +97,20 @@ class BoardServiceMockTest {
                 .ownerToken("token-abc")
                 .build();
 
-        when(boardCache.get(boardId)).thenReturn(Optional.empty());
+        stubCacheMiss(boardId);
         when(boardRepository.findByIdAndDeletedFalse(boardId)).thenReturn(Optional.of(board));
         when(modelMapper.map(board, BoardDto.class)).thenReturn(boardDto);
 
         var result = boardService.getBoardDto(boardId);
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(boardId);
-        verify(boardCache).put(boardId, boardDto);
     }
 
     @Test
     void getBoardDto_notFound() {
         var boardId = "non-existent-board";
 
-        when(boardCache.get(boardId)).thenReturn(Optional.empty());
+        stubCacheMiss(boardId);
         when(boardRepository.findByIdAndDeletedFalse(boardId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> boardService.getBoardDto(boardId))
@@ -122,9 +128,34 @@ class BoardServiceMockTest {
 
         boardService.deleteBoard(boardDto);
 
-        verify(boardCache).invalidate(boardId);
-        verify(mockRuleCache).invalidate(boardId);
-        verify(webhookCache).invalidate(boardId);
+        verify(boardIdFilter).remove(boardId);
+        verify(boardContextCache).invalidate(boardId);
         verify(boardRepository).markDeleted(boardId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteBoard_inTransaction_dropsCachesAfterCommit() {
+        var boardId = "board-123";
+        var boardDto = BoardDto.builder().id(boardId).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boardService.deleteBoard(boardDto);
+
+            verify(boardRepository).markDeleted(boardId);
+            verifyNoInteractions(boardIdFilter, boardContextCache);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(boardIdFilter).remove(boardId);
+        verify(boardContextCache).invalidate(boardId);
+    }
+
+    private void stubCacheMiss(String boardId) {
+        when(boardCache.get(eq(boardId), any())).thenAnswer(invocation ->
+                invocation.<Function<String, BoardDto>>getArgument(1).apply(boardId));
+    }
+}
@@ -0,0 +1,150 @@
+package dev.mockboard.service;
+
+import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardIdFilter;
+import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.exception.NotFoundException;
+import dev.mockboard.common.executor.BoardLaneExecutor;
+import dev.mockboard.common.routing.MockResponsePlanCompiler;
+import dev.mockboard.common.validator.MockRuleValidator;
+import dev.mockboard.config.sse.SseManager;
+import dev.mockboard.event.EventQueue;
+import dev.mockboard.repository.BoardRepository;
+import dev.mockboard.repository.MockRuleRepository;
+import dev.mockboard.repository.WebhookRepository;
+import dev.mockboard.repository.model.Board;
+import dev.mockboard.repository.model.MockRule;
+import dev.mockboard.repository.model.Webhook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Real caches, mocked repositories that answer slowly: every cold-board miss must share one query.
+ */
+class CacheLoadConcurrencyTest {
+
+    private static final int CALLERS = 500;
+    private static final String BOARD_ID = "board-1";
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final MockRuleRepository mockRuleRepository = mock(MockRuleRepository.class);
+    private final WebhookRepository webhookRepository = mock(WebhookRepository.class);
+
+    private BoardService boardService;
+    private MockRuleService mockRuleService;
+    private WebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        var boardContextCache = new BoardContextCache();
+        var mockRuleCache = new MockRuleCache(boardContextCache);
+        boardService = new BoardService(modelMapper, boardRepository, new BoardCache(boardContextCache),
+                mock(BoardIdFilter.class), mockRuleCache, boardContextCache);
+        mockRuleService = new MockRuleService(modelMapper, mock(MockRuleValidator.class), mockRuleRepository,
+                boardRepository, mockRuleCache, mock(MockResponsePlanCompiler.class));
+        webhookService = new WebhookService(mock(EventQueue.class), modelMapper, new WebhookCache(boardContextCache),
+                webhookRepository, mock(SseManager.class), mock(BoardLaneExecutor.class));
+    }
+
+    @Test
+    void boardMissesShareOneQuery() throws Exception {
+        when(boardRepository.findByIdAndDeletedFalse(BOARD_ID)).thenAnswer(invocation -> slowly(Optional.of(
+                Board.builder().id(BOARD_ID).ownerToken("token").timestamp(Instant.now()).build())));
+
+        var results = runConcurrently(() -> boardService.getBoardDto(BOARD_ID));
+
+        assertThat(results).allSatisfy(board -> assertThat(board.getId()).isEqualTo(BOARD_ID));
+        assertThat(results).allSatisfy(board -> assertThat(board).isSameAs(results.getFirst()));
+        verify(boardRepository, times(1)).findByIdAndDeletedFalse(BOARD_ID);
+    }
+
+    @Test
+    void mockRuleMissesShareOneQuery() throws Exception {
+        var mockRule = new MockRule();
+        mockRule.setId("rule-1");
+        mockRule.setBoardId(BOARD_ID);
+        mockRule.setMethod("GET");
+        mockRule.setPath("/api/test");
+        mockRule.setTimestamp(Instant.now());
+        when(boardRepository.existsByIdAndDeletedFalse(BOARD_ID)).thenAnswer(invocation -> slowly(true));
+        when(mockRuleRepository.findByBoardIdAndDeletedFalseOrderByTimestampDesc(BOARD_ID)).thenReturn(List.of(mockRule));
+
+        var results = runConcurrently(() -> mockRuleService.getMockRules(BoardDto.builder().id(BOARD_ID).build()));
+
+        assertThat(results).allSatisfy(mockRules -> assertThat(mockRules).extracting(MockRuleDto::getId).containsExactly("rule-1"));
+        verify(boardRepository, times(1)).existsByIdAndDeletedFalse(BOARD_ID);
+        verify(mockRuleRepository, times(1)).findByBoardIdAndDeletedFalseOrderByTimestampDesc(BOARD_ID);
+    }
+
+    @Test
+    void webhookMissesShareOneQuery() throws Exception {
+        var webhook = new Webhook();
+        webhook.setId("webhook-1");
+        webhook.setBoardId(BOARD_ID);
+        webhook.setTimestamp(Instant.now());
+        when(webhookRepository.findByBoardIdOrderByTimestampDesc(BOARD_ID)).thenAnswer(invocation -> slowly(List.of(webhook)));
+
+        var results = runConcurrently(() -> webhookService.getWebhooks(BoardDto.builder().id(BOARD_ID).build()));
+
+        assertThat(results).allSatisfy(webhooks -> assertThat(webhooks).extracting(WebhookDto::getId).containsExactly("webhook-1"));
+        verify(webhookRepository, times(1)).findByBoardIdOrderByTimestampDesc(BOARD_ID);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(boardRepository.findByIdAndDeletedFalse(BOARD_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Board.builder().id(BOARD_ID).ownerToken("token").timestamp(Instant.now()).build()));
+
+        assertThatThrownBy(() -> boardService.getBoardDto(BOARD_ID)).isInstanceOf(NotFoundException.class);
+        assertThat(boardService.getBoardDto(BOARD_ID).getId()).isEqualTo(BOARD_ID);
+        verify(boardRepository, times(2)).findByIdAndDeletedFalse(any());
+    }
+
+    private static <T> T slowly(T result) throws InterruptedException {
+        // long enough for every caller to pile up behind the first miss
+        Thread.sleep(200);
+        return result;
+    }
+
+    private static <T> List<T> runConcurrently(Supplier<T> call) throws Exception {
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<T>>(CALLERS);
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.get();
+                }));
+            }
+            start.countDown();
+
+            var results = new ArrayList<T>(CALLERS);
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package dev.mockboard.service;
+
+import dev.mockboard.common.cache.BoardCache;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardContextSnapshot;
+import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.cache.WebhookCache;
+import dev.mockboard.common.domain.MockRuleTable;
+import dev.mockboard.common.domain.dto.BoardDto;
+import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.repository.BoardRepository;
+import dev.mockboard.repository.MockRuleRepository;
+import dev.mockboard.repository.WebhookRepository;
+import dev.mockboard.repository.model.Board;
+import dev.mockboard.repository.model.MockRule;
+import dev.mockboard.repository.model.Webhook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotServiceMockTest {
+
+    @Mock private ModelMapper modelMapper;
+    @Mock private BoardRepository boardRepository;
+    @Mock private MockRuleRepository mockRuleRepository;
+    @Mock private WebhookRepository webhookRepository;
+    @Mock private MockRuleService mockRuleService;
+
+    @TempDir private Path dir;
+
+    private BoardContextCache boardContextCache;
+    private BoardCache boardCache;
+    private MockRuleCache mockRuleCache;
+    private WebhookCache webhookCache;
+    private CacheSnapshotService cacheSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        boardContextCache = new BoardContextCache();
+        boardCache = new BoardCache(boardContextCache);
+        mockRuleCache = new MockRuleCache(boardContextCache);
+        webhookCache = new WebhookCache(boardContextCache);
+        cacheSnapshotService = new CacheSnapshotService(modelMapper, boardRepository, mockRuleRepository, webhookRepository,
+                boardContextCache, boardCache, mockRuleCache, webhookCache, mockRuleService);
+    }
+
+    @Test
+    void restoreSnapshot_skipsDeletedBoards() throws Exception {
+        var source = new BoardContextCache();
+        new BoardCache(source).put("board-1", BoardDto.builder().id("board-1").ownerToken("token").build());
+        new BoardCache(source).put("deleted-board", BoardDto.builder().id("deleted-board").ownerToken("token").build());
+        new MockRuleCache(source).markEmpty("board-1");
+        var path = dir.resolve("snapshot.bin");
+        BoardContextSnapshot.write(path, source.contexts());
+
+        when(boardRepository.findActiveBoardIds()).thenReturn(List.of("board-1"));
+        when(mockRuleService.toMockRuleTable(anyList())).thenReturn(MockRuleTable.EMPTY);
+
+        var restored = cacheSnapshotService.restoreSnapshot(path);
+
+        assertThat(restored).isEqualTo(1);
+        assertThat(boardCache.get("board-1")).isPresent();
+        assertThat(mockRuleCache.getMockRuleTable("board-1")).isSameAs(MockRuleTable.EMPTY);
+        assertThat(boardContextCache.getIfPresent("board-1").webhookRing()).isNull();
+        assertThat(boardContextCache.getIfPresent("deleted-board")).isNull();
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    void restoreSnapshot_keepsLoadedParts() throws Exception {
+        var source = new BoardContextCache();
+        new MockRuleCache(source).markEmpty("board-1");
+        var path = dir.resolve("snapshot.bin");
+        BoardContextSnapshot.write(path, source.contexts());
+
+        var current = MockRuleTable.of(List.of(MockRuleDto.builder().id("rule-1").path("/api").timestamp(Instant.now()).build()));
+        mockRuleCache.put("board-1", current);
+        when(boardRepository.findActiveBoardIds()).thenReturn(List.of("board-1"));
+
+        cacheSnapshotService.restoreSnapshot(path);
+
+        assertThat(mockRuleCache.getMockRuleTable("board-1")).isSameAs(current);
+        verifyNoInteractions(mockRuleService);
+    }
+
+    @Test
+    void restoreSnapshot_missing() {
+        assertThat(cacheSnapshotService.restoreSnapshot(dir.resolve("snapshot.bin"))).isEqualTo(-1);
+        verifyNoInteractions(boardRepository);
+    }
+
+    @Test
+    void restoreSnapshot_unreadable() throws Exception {
+        var path = dir.resolve("snapshot.bin");
+        Files.write(path, List.of("garbage"));
+
+        assertThat(cacheSnapshotService.restoreSnapshot(path)).isEqualTo(-1);
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    void loadRecentBoards() {
+        var board = Board.builder().id("board-1").ownerToken("token").timestamp(Instant.now()).build();
+        var mockRule = new MockRule();
+        mockRule.setBoardId("board-1");
+        var webhook = new Webhook();
+        webhook.setBoardId("board-1");
+        var mockRuleDto = new MockRuleDto();
+        var webhookDto = new WebhookDto();
+        webhookDto.setTimestamp(Instant.now());
+
+        when(boardRepository.findRecentActiveBoards(10)).thenReturn(List.of(board));
+        when(mockRuleRepository.streamActiveByBoardIds(List.of("board-1"))).thenReturn(Stream.of(mockRule));
+        when(webhookRepository.streamByBoardIds(List.of("board-1"))).thenReturn(Stream.of(webhook));
+        when(modelMapper.map(mockRule, MockRuleDto.class)).thenReturn(mockRuleDto);
+        when(modelMapper.map(webhook, WebhookDto.class)).thenReturn(webhookDto);
+        when(mockRuleService.toMockRuleTable(List.of(mockRuleDto))).thenReturn(MockRuleTable.EMPTY);
+
+        assertThat(cacheSnapshotService.loadRecentBoards(10)).isEqualTo(1);
+        assertThat(mockRuleCache.getMockRuleTable("board-1")).isSameAs(MockRuleTable.EMPTY);
+        assertThat(webhookCache.getWebhooks("board-1")).containsExactly(webhookDto);
+        // boards count towards the active board limit, they are loaded on use
+        assertThat(boardCache.get("board-1")).isEmpty();
+    }
+}
@@ -1,22 +1,30 @@
 package dev.mockboard.service;
 
 import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContext;
+import dev.mockboard.common.cache.BoardContextCache;
+import dev.mockboard.common.cache.BoardIdFilter;
+import dev.mockboard.common.domain.MockRuleTable;
 import dev.mockboard.common.domain.RequestMetadata;
-import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
+import dev.mockboard.common.exception.NotFoundException;
+import dev.mockboard.common.faker.TemplateFakerProcessor;
+import dev.mockboard.common.routing.MockResponsePlanCompiler;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,30 +32,64 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class MockExecutionServiceMockTest {
 
-    @Mock private ObjectMapper objectMapper;
     @Mock private MockRuleService mockRuleService;
-    @Mock private TemplateFakerService templateFakerService;
+    @Mock private BoardIdFilter boardIdFilter;
+    @Spy private BoardContextCache boardContextCache = new BoardContextCache();
 
     @InjectMocks private MockExecutionService mockExecutionService;
 
+    private final MockResponsePlanCompiler planCompiler = new MockResponsePlanCompiler(JsonMapper.builder().build(), new TemplateFakerProcessor());
+
     @Test
     void execute_defaultResponse() {
         var boardId = "board-123";
         var metadata = new RequestMetadata(
                 "GET",
                 "/api/test",
-                "http://localhost/api/test", "", "", "", null, null
+                "http://localhost/api/test",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
         );
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(Collections.emptyList());
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.EMPTY);
 
         var result = mockExecutionService.execute(boardId, metadata);
         assertThat(result).isNotNull();
         assertThat(result.statusCode()).isEqualTo(200);
-        assertThat(result.responseBody()).isEqualTo(Constants.DEFAULT_EXECUTION_RESPONSE);
+        assertThat(result.responseBody()).asString(StandardCharsets.UTF_8).isEqualTo(Constants.DEFAULT_EXECUTION_RESPONSE);
         assertThat(result.matchingMockRuleDto()).isNull();
         assertThat(result.headers().getFirst(HttpHeaders.CONTENT_TYPE))
                 .isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(result.boardContext()).isSameAs(boardContextCache.getIfPresent(boardId));
+    }
+
+    @Test
+    void execute_unknownBoard() {
+        var metadata = new RequestMetadata(
+                "GET",
+                "/api/test",
+                "http://localhost/api/test",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
+        );
+
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.UNKNOWN_BOARD);
+
+        assertThatThrownBy(() -> mockExecutionService.execute("missing-board", metadata))
+                .isInstanceOf(NotFoundException.class);
+        verify(boardIdFilter).recordFalsePositive();
     }
 
     @Test
@@ -56,8 +98,14 @@ class MockExecutionServiceMockTest {
         var metadata = new RequestMetadata(
                 "POST",
                 "http://localhost/api/users",
-                "/api/users", "", "", "",
-                "{\"name\":\"John\"}",
+                "/api/users",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                "{\"name\":\"John\"}".getBytes(StandardCharsets.UTF_8),
                 "application/json"
         );
 
@@ -68,15 +116,17 @@ class MockExecutionServiceMockTest {
         mockRuleDto.setBody("{\"id\":123}");
         mockRuleDto.setStatusCode(201);
         mockRuleDto.setDelay(0);
-        mockRuleDto.compilePattern();
+        compile(mockRuleDto);
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(List.of(mockRuleDto));
-        when(templateFakerService.processTemplates("{\"id\":123}")).thenReturn("{\"id\":123}");
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.of(List.of(mockRuleDto)));
 
         var result = mockExecutionService.execute(boardId, metadata);
         assertThat(result.statusCode()).isEqualTo(201);
-        assertThat(result.responseBody()).isEqualTo("{\"id\":123}");
+        assertThat(result.responseBody()).asString(StandardCharsets.UTF_8).isEqualTo("{\"id\":123}");
+        assertThat(result.staticBody()).isTrue();
         assertThat(result.matchingMockRuleDto()).isEqualTo(mockRuleDto);
+        // static body, served as pre-encoded bytes
+        assertThat(result.responseBody()).isSameAs(mockRuleDto.getResponsePlan().staticBody());
     }
 
     @Test
@@ -85,7 +135,15 @@ class MockExecutionServiceMockTest {
         var metadata = new RequestMetadata(
                 "GET",
                 "http://localhost/api/users/123/profile",
-                "/api/users/123/profile", "", "", "", null, null
+                "/api/users/123/profile",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
         );
 
         var mockRuleDto = new MockRuleDto();
@@ -95,10 +153,9 @@ class MockExecutionServiceMockTest {
         mockRuleDto.setBody("{\"profile\":\"data\"}");
         mockRuleDto.setStatusCode(200);
         mockRuleDto.setDelay(0);
-        mockRuleDto.compilePattern();
+        compile(mockRuleDto);
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(List.of(mockRuleDto));
-        when(templateFakerService.processTemplates(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.of(List.of(mockRuleDto)));
 
         var result = mockExecutionService.execute(boardId, metadata);
         assertThat(result.statusCode()).isEqualTo(200);
@@ -111,15 +168,22 @@ class MockExecutionServiceMockTest {
         var metadata = new RequestMetadata(
                 "POST",
                 "/api/test",
-                "http://localhost/api/test", "", "", "", null, null
+                "http://localhost/api/test",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
         );
 
         var getRule = new MockRuleDto();
         getRule.setMethod("GET");
         getRule.setPath("/api/test");
-        getRule.compilePattern();
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(List.of(getRule));
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.of(List.of(getRule)));
 
         var result = mockExecutionService.execute(boardId, metadata);
         assertThat(result.matchingMockRuleDto()).isNull();
@@ -132,25 +196,31 @@ class MockExecutionServiceMockTest {
         var metadata = new RequestMetadata(
                 "GET",
                 "http://localhost/api/test",
-                "/api/test", "", "", "", null, null
+                "/api/test",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
         );
 
         var mockRuleDto = new MockRuleDto();
         mockRuleDto.setMethod("GET");
         mockRuleDto.setPath("/api/test");
-        mockRuleDto.setBody("{\"name\":\"{{faker.name}}\"}");
+        mockRuleDto.setBody("{\"name\":\"{{user.fullName}}\"}");
         mockRuleDto.setStatusCode(200);
         mockRuleDto.setDelay(0);
-        mockRuleDto.compilePattern();
+        compile(mockRuleDto);
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(List.of(mockRuleDto));
-        when(templateFakerService.processTemplates("{\"name\":\"{{faker.name}}\"}"))
-                .thenReturn("{\"name\":\"John Doe\"}");
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.of(List.of(mockRuleDto)));
 
         var result = mockExecutionService.execute(boardId, metadata);
 
-        assertThat(result.responseBody()).isEqualTo("{\"name\":\"John Doe\"}");
-        verify(templateFakerService).processTemplates("{\"name\":\"{{faker.name}}\"}");
+        assertThat(result.responseBody()).asString(StandardCharsets.UTF_8).matches("\\{\"name\":\"[^{}\"]+\"}");
+        assertThat(result.staticBody()).isFalse();
     }
 
     @Test
@@ -160,7 +230,14 @@ class MockExecutionServiceMockTest {
                 "GET",
                 "http://localhost/api/test",
                 "/api/test",
-                "", "", "", null, null
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                null,
+                null
         );
 
         var mockRuleDto = new MockRuleDto();
@@ -168,14 +245,17 @@ class MockExecutionServiceMockTest {
         mockRuleDto.setPath("/api/test");
         mockRuleDto.setStatusCode(200);
         mockRuleDto.setDelay(100);
-        mockRuleDto.compilePattern();
+        compile(mockRuleDto);
+
+        when(mockRuleService.getMockRuleTable(any(BoardContext.class))).thenReturn(MockRuleTable.of(List.of(mockRuleDto)));
 
-        when(mockRuleService.getMockRules(any(BoardDto.class))).thenReturn(List.of(mockRuleDto));
+        var result = mockExecutionService.execute(boardId, metadata);
 
-        var startTime = System.currentTimeMillis();
-        mockExecutionService.execute(boardId, metadata);
-        var endTime = System.currentTimeMillis();
+        // delay is applied by the controller via the timer, not on the calling thread
+        assertThat(result.delay()).isEqualTo(100);
+    }
 
-        assertThat(endTime - startTime).isGreaterThanOrEqualTo(100);
+    private void compile(MockRuleDto mockRuleDto) {
+        mockRuleDto.setResponsePlan(planCompiler.compile(mockRuleDto));
     }
-}
\ No newline at end of file
+}
@@ -2,15 +2,19 @@ package dev.mockboard.service;
 
 import dev.mockboard.Constants;
 import dev.mockboard.common.cache.MockRuleCache;
+import dev.mockboard.common.domain.MockRuleTable;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import dev.mockboard.common.exception.BadRequestException;
 import dev.mockboard.common.exception.NotFoundException;
+import dev.mockboard.common.routing.MockResponsePlanCompiler;
 import dev.mockboard.common.validator.MockRuleValidator;
+import dev.mockboard.repository.BoardRepository;
 import dev.mockboard.repository.MockRuleRepository;
 import dev.mockboard.repository.model.MockRule;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,6 +23,7 @@ import org.modelmapper.ModelMapper;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +38,8 @@ class MockRuleServiceMockTest {
     @Mock private MockRuleValidator mockRuleValidator;
     @Mock private MockRuleRepository mockRuleRepository;
     @Mock private MockRuleCache mockRuleCache;
+    @Mock private BoardRepository boardRepository;
+    @Mock private MockResponsePlanCompiler mockResponsePlanCompiler;
 
     @InjectMocks private MockRuleService mockRuleService;
 
@@ -51,7 +58,7 @@ class MockRuleServiceMockTest {
         var mockRule = new MockRule();
         mockRule.setId("rule-1");
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(Collections.emptyList());
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.EMPTY);
         when(modelMapper.map(any(MockRuleDto.class), eq(MockRule.class))).thenReturn(mockRule);
         when(mockRuleRepository.save(any(MockRule.class))).thenReturn(mockRule);
 
@@ -61,6 +68,7 @@ class MockRuleServiceMockTest {
         assertThat(result.id()).isEqualTo("rule-1");
 
         verify(mockRuleValidator).validateMockRule(mockRuleDto);
+        verify(mockResponsePlanCompiler).compile(mockRuleDto);
         verify(mockRuleCache).addMockRule(eq(boardId), any(MockRuleDto.class));
         verify(mockRuleRepository).save(any(MockRule.class));
     }
@@ -76,7 +84,7 @@ class MockRuleServiceMockTest {
             existingRules.add(new MockRuleDto());
         }
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(existingRules);
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.of(existingRules));
 
         assertThatThrownBy(() -> mockRuleService.createMockRule(boardDto, mockRuleDto))
                 .isInstanceOf(BadRequestException.class)
@@ -95,7 +103,7 @@ class MockRuleServiceMockTest {
         cachedRule.setId("rule-1");
         cachedRule.setBoardId(boardId);
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(List.of(cachedRule));
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.of(List.of(cachedRule)));
 
         var result = mockRuleService.getMockRules(boardDto);
 
@@ -121,15 +129,56 @@ class MockRuleServiceMockTest {
         mockRuleDto.setMethod("GET");
         mockRuleDto.setPath("/api/test");
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(Collections.emptyList());
+        when(boardRepository.existsByIdAndDeletedFalse(boardId)).thenReturn(true);
         when(mockRuleRepository.findByBoardIdAndDeletedFalseOrderByTimestampDesc(boardId)).thenReturn(List.of(mockRule));
         when(modelMapper.map(mockRule, MockRuleDto.class)).thenReturn(mockRuleDto);
+        stubCacheMiss(boardId);
 
         var result = mockRuleService.getMockRules(boardDto);
 
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getId()).isEqualTo("rule-1");
-        verify(mockRuleCache).addMockRules(eq(boardId), any());
+    }
+
+    @Test
+    void getMockRules_knownEmpty() {
+        var boardId = "board-123";
+        var boardDto = BoardDto.builder().id(boardId).build();
+
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.EMPTY);
+
+        var result = mockRuleService.getMockRules(boardDto);
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(boardRepository, mockRuleRepository);
+    }
+
+    @Test
+    void getMockRules_emptyBoardCached() {
+        var boardId = "board-123";
+        var boardDto = BoardDto.builder().id(boardId).build();
+
+        when(boardRepository.existsByIdAndDeletedFalse(boardId)).thenReturn(true);
+        when(mockRuleRepository.findByBoardIdAndDeletedFalseOrderByTimestampDesc(boardId)).thenReturn(Collections.emptyList());
+        stubCacheMiss(boardId);
+
+        var result = mockRuleService.getMockRuleTable(boardDto);
+
+        assertThat(result).isSameAs(MockRuleTable.EMPTY);
+    }
+
+    @Test
+    void getMockRules_unknownBoardCached() {
+        var boardId = "unknown-board";
+        var boardDto = BoardDto.builder().id(boardId).build();
+
+        when(boardRepository.existsByIdAndDeletedFalse(boardId)).thenReturn(false);
+        stubCacheMiss(boardId);
+
+        var result = mockRuleService.getMockRuleTable(boardDto);
+
+        assertThat(result).isSameAs(MockRuleTable.UNKNOWN_BOARD);
+        verify(mockRuleRepository, never()).findByBoardIdAndDeletedFalseOrderByTimestampDesc(any());
     }
 
     @Test
@@ -155,20 +204,30 @@ class MockRuleServiceMockTest {
         var mockRule = new MockRule();
         mockRule.setId(mockRuleId);
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(List.of(existingDto));
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.of(List.of(existingDto)));
         when(modelMapper.map(any(MockRuleDto.class), eq(MockRule.class))).thenReturn(mockRule);
         when(mockRuleRepository.save(any(MockRule.class))).thenReturn(mockRule);
 
         var result = mockRuleService.updateMockRule(boardDto, mockRuleId, updateDto);
 
         assertThat(result.id()).isEqualTo(mockRuleId);
-        assertThat(existingDto.getMethod()).isEqualTo("POST");
-        assertThat(existingDto.getPath()).isEqualTo("/api/new");
-        assertThat(existingDto.getStatusCode()).isEqualTo(201);
-        assertThat(existingDto.getDelay()).isEqualTo(100);
+        // cached rule is left untouched
+        assertThat(existingDto.getMethod()).isEqualTo("GET");
+        assertThat(existingDto.getPath()).isEqualTo("/api/old");
+
+        var updatedCaptor = ArgumentCaptor.forClass(MockRuleDto.class);
+        verify(mockRuleCache).updateMockRule(eq(boardId), updatedCaptor.capture());
+        var updatedDto = updatedCaptor.getValue();
+        assertThat(updatedDto).isNotSameAs(existingDto);
+        assertThat(updatedDto.getId()).isEqualTo(mockRuleId);
+        assertThat(updatedDto.getBoardId()).isEqualTo(boardId);
+        assertThat(updatedDto.getMethod()).isEqualTo("POST");
+        assertThat(updatedDto.getPath()).isEqualTo("/api/new");
+        assertThat(updatedDto.getStatusCode()).isEqualTo(201);
+        assertThat(updatedDto.getDelay()).isEqualTo(100);
+        verify(mockResponsePlanCompiler).compile(updatedDto);
 
         verify(mockRuleValidator).validateMockRule(updateDto);
-        verify(mockRuleCache).updateMockRule(boardId, existingDto);
         verify(mockRuleRepository).save(mockRule);
     }
 
@@ -179,7 +238,7 @@ class MockRuleServiceMockTest {
         var mockRuleId = "non-existent-rule";
         var updateDto = new MockRuleDto();
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(Collections.emptyList());
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.EMPTY);
 
         assertThatThrownBy(() -> mockRuleService.updateMockRule(boardDto, mockRuleId, updateDto))
                 .isInstanceOf(NotFoundException.class)
@@ -198,11 +257,19 @@ class MockRuleServiceMockTest {
         existingDto.setId(mockRuleId);
         existingDto.setBoardId(boardId);
 
-        when(mockRuleCache.getMockRules(boardId)).thenReturn(List.of(existingDto));
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenReturn(MockRuleTable.of(List.of(existingDto)));
 
         mockRuleService.deleteMockRule(boardDto, mockRuleId);
 
         verify(mockRuleCache).deleteMockRule(boardId, mockRuleId);
         verify(mockRuleRepository).markDeleted(mockRuleId);
     }
-}
\ No newline at end of file
+
+    /**
+     * The cache runs the loader of the service, whatever it returns is what gets cached.
+     */
+    private void stubCacheMiss(String boardId) {
+        when(mockRuleCache.getMockRuleTable(eq(boardId), any())).thenAnswer(invocation ->
+                invocation.<Function<String, MockRuleTable>>getArgument(1).apply(boardId));
+    }
+}
@@ -1,13 +1,19 @@
 package dev.mockboard.service;
 
+import dev.mockboard.Constants;
+import dev.mockboard.common.cache.BoardContext;
 import dev.mockboard.common.cache.WebhookCache;
 import dev.mockboard.common.domain.MockExecutionResult;
 import dev.mockboard.common.domain.RequestMetadata;
 import dev.mockboard.common.domain.dto.BoardDto;
 import dev.mockboard.common.domain.dto.MockRuleDto;
 import dev.mockboard.common.domain.dto.WebhookDto;
+import dev.mockboard.common.exception.ServiceUnavailableException;
+import dev.mockboard.common.executor.BoardLaneExecutor;
+import dev.mockboard.common.executor.LaneOverflowPolicy;
 import dev.mockboard.config.sse.SseManager;
 import dev.mockboard.event.EventQueue;
+import dev.mockboard.event.EventType;
 import dev.mockboard.repository.WebhookRepository;
 import dev.mockboard.repository.model.Webhook;
 import org.junit.jupiter.api.Test;
@@ -15,11 +21,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,6 +42,7 @@ class WebhookServiceMockTest {
     @Mock private WebhookCache webhookCache;
     @Mock private WebhookRepository webhookRepository;
     @Mock private SseManager sseManager;
+    @Spy private BoardLaneExecutor boardLaneExecutor = new BoardLaneExecutor(2, 16, LaneOverflowPolicy.DROP);
 
     @InjectMocks private WebhookService webhookService;
 
@@ -44,7 +54,7 @@ class WebhookServiceMockTest {
         cachedWebhook.setId("webhook-1");
         cachedWebhook.setBoardId(boardId);
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(List.of(cachedWebhook));
+        when(webhookCache.getWebhooks(eq(boardId), any())).thenReturn(List.of(cachedWebhook));
 
         var result = webhookService.getWebhooks(boardDto);
         assertThat(result).hasSize(1);
@@ -64,14 +74,13 @@ class WebhookServiceMockTest {
         webhookDto.setId("webhook-1");
         webhookDto.setBoardId(boardId);
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(Collections.emptyList());
+        stubCacheMiss(boardId);
         when(webhookRepository.findByBoardIdOrderByTimestampDesc(boardId)).thenReturn(List.of(webhook));
         when(modelMapper.map(webhook, WebhookDto.class)).thenReturn(webhookDto);
 
         var result = webhookService.getWebhooks(boardDto);
         assertThat(result).hasSize(1);
         assertThat(result.getFirst().getId()).isEqualTo("webhook-1");
-        verify(webhookCache).addWebhooks(eq(boardId), any());
     }
 
     @Test
@@ -79,7 +88,7 @@ class WebhookServiceMockTest {
         var boardId = "board-123";
         var boardDto = BoardDto.builder().id(boardId).build();
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(Collections.emptyList());
+        stubCacheMiss(boardId);
         when(webhookRepository.findByBoardIdOrderByTimestampDesc(boardId)).thenReturn(Collections.emptyList());
 
         var result = webhookService.getWebhooks(boardDto);
@@ -96,14 +105,18 @@ class WebhookServiceMockTest {
                 "GET",
                 "http://localhost/api/test",
                 "/api/test",
-                "",
+                "http",
+                "localhost",
+                80,
                 "abc=cde",
-                "\"Content-Type\", \"application/json\"",
-                "{\"test\":\"data\"}",
+                new String[]{"Content-Type"},
+                new String[]{"application/json"},
+                "{\"test\":\"data\"}".getBytes(StandardCharsets.UTF_8),
                 "application/json"
         );
 
-        var result = new MockExecutionResult(mockRuleDto, null, "{}", 200);
+        var context = new BoardContext(boardId);
+        var result = new MockExecutionResult(context, mockRuleDto, null, "{}".getBytes(StandardCharsets.UTF_8), true, 200, 0);
         var executionTime = 100L;
 
         var webhookDto = new WebhookDto();
@@ -113,14 +126,13 @@ class WebhookServiceMockTest {
         var webhook = new Webhook();
         webhook.setId("webhook-1");
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(List.of());
-        when(webhookCache.addWebhook(eq(boardId), any(WebhookDto.class))).thenAnswer(invocation -> invocation.<WebhookDto>getArgument(1));
+        when(webhookCache.addWebhook(eq(context), any(WebhookDto.class))).thenReturn(false);
         when(modelMapper.map(any(WebhookDto.class), eq(Webhook.class))).thenReturn(webhook);
 
-        webhookService.processWebhookAsync(boardId, metadata, result, executionTime);
+        webhookService.processWebhookAsync(metadata, result, executionTime);
 
         var webhookCaptor = ArgumentCaptor.forClass(WebhookDto.class);
-        verify(sseManager, timeout(1000)).broadcast(eq(boardId), webhookCaptor.capture());
+        verify(sseManager, timeout(1000)).broadcast(eq(context), webhookCaptor.capture());
 
         var captured = webhookCaptor.getValue();
         assertThat(captured.getBoardId()).isEqualTo(boardId);
@@ -130,41 +142,45 @@ class WebhookServiceMockTest {
         assertThat(captured.getPath()).isEqualTo("/api/test");
         assertThat(captured.getStatusCode()).isEqualTo(200);
 
-        verify(eventQueue, timeout(1000)).publish(any());
+        verify(eventQueue, timeout(1000)).publish(argThat(event -> event.getType() == EventType.CREATE));
     }
 
     @Test
-    void processWebhookAsync_idsDoNotMatch() {
+    void processWebhookAsync_recycledSlot() {
         var boardId = "board-123";
         var metadata = new RequestMetadata(
                 "POST",
                 "/api/update",
                 "http://localhost/api/update",
-                "",
+                "http",
+                "localhost",
+                80,
                 "abc=cde",
-                "\"Content-Type\", \"application/json\"",
-                "{}",
+                new String[]{"Content-Type"},
+                new String[]{"application/json"},
+                "{}".getBytes(StandardCharsets.UTF_8),
                 "application/json"
         );
 
-        var result = new MockExecutionResult(null, null, "{}", 200);
+        var context = new BoardContext(boardId);
+        var result = new MockExecutionResult(context, null, null, "{}".getBytes(StandardCharsets.UTF_8), true, 200, 0);
         var executionTime = 50L;
 
-        var cachedDto = new WebhookDto();
-        cachedDto.setId("cached-webhook-1");
-        cachedDto.setBoardId(boardId);
-
         var webhook = new Webhook();
         webhook.setId("cached-webhook-1");
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(List.of());
-        when(webhookCache.addWebhook(eq(boardId), any(WebhookDto.class))).thenReturn(cachedDto);
-        when(modelMapper.map(cachedDto, Webhook.class)).thenReturn(webhook);
+        when(webhookCache.addWebhook(eq(context), any(WebhookDto.class))).thenAnswer(invocation -> {
+            invocation.<WebhookDto>getArgument(1).setId("cached-webhook-1");
+            return true;
+        });
+        when(modelMapper.map(any(WebhookDto.class), eq(Webhook.class))).thenReturn(webhook);
 
-        webhookService.processWebhookAsync(boardId, metadata, result, executionTime);
+        webhookService.processWebhookAsync(metadata, result, executionTime);
 
-        verify(sseManager, timeout(1000)).broadcast(boardId, cachedDto);
-        verify(eventQueue, timeout(1000)).publish(any());
+        var webhookCaptor = ArgumentCaptor.forClass(WebhookDto.class);
+        verify(sseManager, timeout(1000)).broadcast(eq(context), webhookCaptor.capture());
+        assertThat(webhookCaptor.getValue().getId()).isEqualTo("cached-webhook-1");
+        verify(eventQueue, timeout(1000)).publish(argThat(event -> event.getType() == EventType.UPDATE));
     }
 
     @Test
@@ -174,27 +190,82 @@ class WebhookServiceMockTest {
                 "DELETE",
                 "/api/delete",
                 "http://localhost/api/delete",
+                "http",
+                "localhost",
+                80,
                 "",
-                "",
-                "abc=cde",
+                new String[0],
+                new String[0],
                 null,
                 null
         );
 
-        var result = new MockExecutionResult(null, null, "{}", 200);
+        var context = new BoardContext(boardId);
+        var result = new MockExecutionResult(context, null, null, "{}".getBytes(StandardCharsets.UTF_8), true, 200, 0);
         var executionTime = 25L;
 
         var webhookDto = new WebhookDto();
         webhookDto.setId("webhook-1");
 
-        when(webhookCache.getWebhooks(boardId)).thenReturn(List.of());
-        when(webhookCache.addWebhook(eq(boardId), any(WebhookDto.class))).thenAnswer(invocation -> invocation.getArgument(1));
+        when(webhookCache.addWebhook(eq(context), any(WebhookDto.class))).thenReturn(false);
         when(modelMapper.map(any(WebhookDto.class), eq(Webhook.class))).thenReturn(new Webhook());
 
-        webhookService.processWebhookAsync(boardId, metadata, result, executionTime);
+        webhookService.processWebhookAsync(metadata, result, executionTime);
 
         var webhookCaptor = ArgumentCaptor.forClass(WebhookDto.class);
-        verify(sseManager, timeout(1000)).broadcast(eq(boardId), webhookCaptor.capture());
+        verify(sseManager, timeout(1000)).broadcast(eq(context), webhookCaptor.capture());
         assertThat(webhookCaptor.getValue().getMatched()).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void processWebhookAsync_databaseUnavailable() {
+        var metadata = new RequestMetadata(
+                "POST",
+                "/api/events",
+                "http://localhost/api/events",
+                "http",
+                "localhost",
+                80,
+                "",
+                new String[0],
+                new String[0],
+                "{}".getBytes(StandardCharsets.UTF_8),
+                "application/json"
+        );
+
+        var context = new BoardContext("board-123");
+        var result = new MockExecutionResult(context, null, null, "{}".getBytes(StandardCharsets.UTF_8), true, 200, 0);
+
+        doThrow(new ServiceUnavailableException("Database unavailable")).when(webhookCache).load(eq(context), any());
+        when(modelMapper.map(any(WebhookDto.class), eq(Webhook.class))).thenReturn(new Webhook());
+
+        webhookService.processWebhookAsync(metadata, result, 10L);
+
+        // written once the database is back, the ring stays unloaded
+        verify(eventQueue, timeout(1000)).publish(argThat(event -> event.getType() == EventType.CREATE));
+        verify(sseManager, timeout(1000)).broadcast(eq(context), any(WebhookDto.class));
+        verify(webhookCache, never()).addWebhook(any(BoardContext.class), any());
+    }
+
+    @Test
+    void processWebhookAsync_sampledOut() {
+        var metadata = new RequestMetadata("GET", "/api/items", "http://localhost/api/items", "http", "localhost", 80,
+                "", new String[0], new String[0], null, null);
+        var context = new BoardContext("board-123");
+        var result = new MockExecutionResult(context, null, null, "{}".getBytes(StandardCharsets.UTF_8), true, 200, 0);
+        // the whole second's share, the next request is sampled
+        for (var i = 0; i < Constants.CAPTURE_FULL_RATE; i++) {
+            context.captureSampler().admit();
+        }
+
+        webhookService.processWebhookAsync(metadata, result, 10L);
+
+        verify(boardLaneExecutor, never()).execute(any(), any(), any());
+        assertThat(context.captureSampler().stats().skipped()).isEqualTo(1);
+    }
+
+    private void stubCacheMiss(String boardId) {
+        when(webhookCache.getWebhooks(eq(boardId), any())).thenAnswer(invocation ->
+                invocation.<Function<String, List<WebhookDto>>>getArgument(1).apply(boardId));
+    }
+}
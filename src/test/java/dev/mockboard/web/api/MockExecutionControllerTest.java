@@ -0,0 +1,96 @@
+package dev.mockboard.web.api;
+
+import dev.mockboard.common.cache.BoardContext;
+import dev.mockboard.common.cache.BoardIdFilter;
+import dev.mockboard.common.domain.MockExecutionResult;
+import dev.mockboard.common.domain.MockResponsePlan;
+import dev.mockboard.common.domain.RequestMetadata;
+import dev.mockboard.common.timer.HashedWheelTimer;
+import dev.mockboard.common.validator.RequestMetadataValidator;
+import dev.mockboard.config.advice.ExceptionHandlerAdvice;
+import dev.mockboard.service.MockExecutionService;
+import dev.mockboard.service.WebhookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class MockExecutionControllerTest {
+
+    private static final String BOARD_ID = "board-123";
+
+    @Mock private BoardIdFilter boardIdFilter;
+    @Mock private RequestMetadataValidator requestMetadataValidator;
+    @Mock private MockExecutionService mockExecutionService;
+    @Mock private WebhookService webhookService;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, 8);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        var controller = new MockExecutionController(boardIdFilter, requestMetadataValidator, mockExecutionService,
+                webhookService, timer);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ExceptionHandlerAdvice())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void unknownBoard() throws Exception {
+        when(boardIdFilter.mightContain(BOARD_ID)).thenReturn(false);
+
+        // same body as an unknown board that got past the filter
+        mockMvc.perform(get("/m/" + BOARD_ID + "/api/users"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Board not found by id: " + BOARD_ID))
+                .andExpect(jsonPath("$.timestamp").exists());
+
+        verifyNoInteractions(requestMetadataValidator, mockExecutionService, webhookService);
+    }
+
+    @Test
+    void delayedResponse() throws Exception {
+        var metadata = mock(RequestMetadata.class);
+        var result = new MockExecutionResult(new BoardContext(BOARD_ID), null, MockResponsePlan.jsonHeaders(),
+                "{\"ok\":true}".getBytes(StandardCharsets.UTF_8), true, 201, 200);
+        when(boardIdFilter.mightContain(BOARD_ID)).thenReturn(true);
+        when(requestMetadataValidator.validateAndGet(eq(BOARD_ID), any())).thenReturn(metadata);
+        when(mockExecutionService.execute(BOARD_ID, metadata)).thenReturn(result);
+
+        var started = System.nanoTime();
+        var mvcResult = mockMvc.perform(get("/m/" + BOARD_ID + "/api/slow"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // captured on the request thread, with the delay counted, before the timer fires
+        verify(webhookService).processWebhookAsync(same(metadata), same(result), longThat(time -> time >= 200));
+        assertThat(mvcResult.getRequest().getAsyncContext().getTimeout()).isGreaterThan(200);
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"ok\":true}"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(200);
+        assertThat(timer.pending()).isZero();
+    }
+}